@@ -12,10 +12,16 @@ import wiki.creeper.creeperPrefixSystem.command.RankCommand;
 import wiki.creeper.creeperPrefixSystem.command.TitleAdminCommand;
 import wiki.creeper.creeperPrefixSystem.command.TitleCommand;
 import wiki.creeper.creeperPrefixSystem.command.TitlesCommand;
+import wiki.creeper.creeperPrefixSystem.config.ExecutorMode;
 import wiki.creeper.creeperPrefixSystem.config.TitlePlusConfiguration;
+import wiki.creeper.creeperPrefixSystem.data.RegistryDiff;
+import wiki.creeper.creeperPrefixSystem.data.achievement.AchievementDefinition;
 import wiki.creeper.creeperPrefixSystem.data.achievement.AchievementRegistry;
+import wiki.creeper.creeperPrefixSystem.data.set.SetDefinition;
 import wiki.creeper.creeperPrefixSystem.data.set.SetRegistry;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatDefinition;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatRegistry;
+import wiki.creeper.creeperPrefixSystem.data.title.TitleDefinition;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleRegistry;
 import wiki.creeper.creeperPrefixSystem.listener.CollectionListener;
 import wiki.creeper.creeperPrefixSystem.listener.PlayerConnectionListener;
@@ -24,27 +30,44 @@ import wiki.creeper.creeperPrefixSystem.redis.RedisBridge;
 import wiki.creeper.creeperPrefixSystem.service.AchievementService;
 import wiki.creeper.creeperPrefixSystem.service.CollectionService;
 import wiki.creeper.creeperPrefixSystem.service.NetworkSyncService;
+import wiki.creeper.creeperPrefixSystem.service.PlayerProfileCache;
+import wiki.creeper.creeperPrefixSystem.service.PlayerProfileService;
+import wiki.creeper.creeperPrefixSystem.service.PlayerRetentionCache;
+import wiki.creeper.creeperPrefixSystem.service.ReloadReconciler;
 import wiki.creeper.creeperPrefixSystem.service.RequirementService;
 import wiki.creeper.creeperPrefixSystem.service.SeasonService;
 import wiki.creeper.creeperPrefixSystem.service.StatService;
 import wiki.creeper.creeperPrefixSystem.service.TitleService;
 import wiki.creeper.creeperPrefixSystem.service.WeeklyRankingService;
+import wiki.creeper.creeperPrefixSystem.storage.EquipWriteBuffer;
 import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
+import wiki.creeper.creeperPrefixSystem.storage.ProgressWriteBuffer;
+import wiki.creeper.creeperPrefixSystem.storage.WriteJournal;
+import wiki.creeper.creeperPrefixSystem.util.MessageBatcher;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
+import wiki.creeper.creeperPrefixSystem.util.ShutdownPipeline;
 import wiki.creeper.creeperPrefixSystem.util.YamlLoader;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
 
 /**
  * Root plugin entry point initialising all managers and coordinating lifecycle operations.
  */
 public final class TitlePlusPlugin extends JavaPlugin {
 
+    private static final long JOURNAL_SEGMENT_BYTES = 8L * 1024L * 1024L;
+
     private TitlePlusConfiguration configuration;
-    private ExecutorService executor;
+    private PriorityExecutor executor;
     private MySqlStorage storage;
+    private ProgressWriteBuffer progressBuffer;
+    private EquipWriteBuffer equipBuffer;
     private RedisBridge redis;
     private TitleRegistry titleRegistry;
     private SetRegistry setRegistry;
@@ -57,10 +80,20 @@ public final class TitlePlusPlugin extends JavaPlugin {
     private TitlePlusAPIImpl api;
     private int seasonTaskId = -1;
     private int weeklyTaskId = -1;
+    private int progressFlushTaskId = -1;
+    private int metricFlushTaskId = -1;
+    private int profileSweepTaskId = -1;
+    private int statExpiryTaskId = -1;
+    private int journalReplayTaskId = -1;
     private RequirementService requirementService;
     private NetworkSyncService networkSyncService;
     private AchievementService achievementService;
     private CollectionService collectionService;
+    private PlayerProfileCache profileCache;
+    private PlayerProfileService profileService;
+    private MessageBatcher messageBatcher;
+    private ReloadReconciler reloadReconciler;
+    private final Object reloadLock = new Object();
 
     @Override
     public void onEnable() {
@@ -68,12 +101,10 @@ public final class TitlePlusPlugin extends JavaPlugin {
         getLogger().info("Loading Paper configuration from " + getDataFolder().toPath().resolve("config.yml"));
         reloadConfiguration();
 
-        executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()),
-                runnable -> {
-                    Thread thread = new Thread(runnable, "TitlePlus-Async");
-                    thread.setDaemon(true);
-                    return thread;
-                });
+        ExecutorMode mode = configuration.executorMode();
+        executor = new PriorityExecutor("TitlePlus-Async", mode, executorConcurrency(mode),
+                configuration.executorQueueCapacity(), getLogger(), () -> !Bukkit.isPrimaryThread());
+        getLogger().info("Running storage work on " + mode.name().toLowerCase() + " threads (concurrency " + executorConcurrency(mode) + ")");
 
         storage = new MySqlStorage(getLogger(), configuration.storage());
         try {
@@ -83,8 +114,19 @@ public final class TitlePlusPlugin extends JavaPlugin {
             getServer().getPluginManager().disablePlugin(this);
             return;
         }
+        if (configuration.journalEnabled()) {
+            WriteJournal journal = new WriteJournal(getDataFolder().toPath().resolve("journal"), getLogger(), JOURNAL_SEGMENT_BYTES);
+            try {
+                journal.open();
+                storage.attachJournal(journal);
+            } catch (IOException exception) {
+                getLogger().log(Level.SEVERE, "Unable to open the write journal; failed writes will be dropped", exception);
+            }
+        }
+        progressBuffer = new ProgressWriteBuffer(storage);
+        equipBuffer = new EquipWriteBuffer(storage, executor);
 
-        redis = new RedisBridge(getLogger(), configuration.redis());
+        redis = new RedisBridge(getLogger(), configuration.redis(), configuration.executorMode());
         redis.connect();
 
         titleRegistry = new TitleRegistry(this);
@@ -101,21 +143,37 @@ public final class TitlePlusPlugin extends JavaPlugin {
         statRegistry.load(statsConfig);
         achievementRegistry.load(achievementsConfig);
 
-        statService = new StatService(this, statRegistry, storage, executor);
-        titleService = new TitleService(this, titleRegistry, setRegistry, storage, statService, executor);
+        profileCache = new PlayerProfileCache(storage, getLogger(), configuration.strictMainThread());
+        messageBatcher = new MessageBatcher(this);
+        statService = new StatService(this, statRegistry, storage, profileCache, messageBatcher, executor);
+        titleService = new TitleService(this, titleRegistry, setRegistry, storage, equipBuffer, statService, profileCache, messageBatcher, executor);
+        reloadReconciler = new ReloadReconciler(this, titleService, profileCache, configuration.reloadBudgetMillis());
         seasonService = new SeasonService(getLogger(), storage, redis, executor, configuration);
         weeklyRankingService = new WeeklyRankingService(this, storage, redis, executor, configuration);
-        requirementService = new RequirementService(titleRegistry, storage, titleService, weeklyRankingService, executor);
-        achievementService = new AchievementService(this, storage, achievementRegistry, executor);
-        collectionService = new CollectionService(this, storage, achievementService, executor);
+        requirementService = new RequirementService(this, titleRegistry, storage, titleService, weeklyRankingService, progressBuffer, profileCache, executor);
+        achievementService = new AchievementService(this, storage, achievementRegistry, profileCache, messageBatcher, executor);
+        collectionService = new CollectionService(this, storage, achievementService, profileCache, messageBatcher, executor);
+        // Without Redis no node hears when another one loads the player, so a retained copy could be stale.
+        long retentionSeconds = configuration.redis().enabled() ? configuration.cacheExpireSeconds() : 0L;
+        if (!configuration.redis().enabled() && configuration.cacheExpireSeconds() > 0L) {
+            getLogger().info("Redis sync is disabled; profiles of disconnected players are not retained.");
+        }
+        profileService = new PlayerProfileService(getLogger(), storage, profileCache, statService, titleService, requirementService, executor, configuration,
+                new PlayerRetentionCache(retentionSeconds, configuration.maxRetainedPlayers()));
         networkSyncService = new NetworkSyncService(getLogger(), redis, statService, configuration.nodeId(), configuration.redis().enabled());
         statService.setNetworkSync(networkSyncService);
+        statService.setProfileService(profileService);
+        titleService.setProfileService(profileService);
+        collectionService.setProfileService(profileService);
+        requirementService.setProfileService(profileService);
+        profileService.setNetworkSync(networkSyncService);
+        networkSyncService.setProfileService(profileService);
 
         seasonService.init();
         weeklyRankingService.refreshWeekKey();
         networkSyncService.init();
 
-        api = new TitlePlusAPIImpl(statService, titleService, weeklyRankingService, seasonService, titleRegistry, setRegistry, statRegistry, requirementService, collectionService, achievementService, achievementRegistry);
+        api = new TitlePlusAPIImpl(statService, titleService, weeklyRankingService, seasonService, titleRegistry, setRegistry, statRegistry, requirementService, collectionService, achievementService, achievementRegistry, profileService, this);
         getServer().getServicesManager().register(TitlePlusAPI.class, api, this, ServicePriority.Normal);
 
         registerListeners();
@@ -133,22 +191,86 @@ public final class TitlePlusPlugin extends JavaPlugin {
         if (weeklyTaskId != -1) {
             Bukkit.getScheduler().cancelTask(weeklyTaskId);
         }
-        getServer().getServicesManager().unregister(api);
-        if (networkSyncService != null) {
-            networkSyncService.shutdown();
+        if (progressFlushTaskId != -1) {
+            Bukkit.getScheduler().cancelTask(progressFlushTaskId);
         }
-        if (redis != null) {
-            redis.close();
+        if (metricFlushTaskId != -1) {
+            Bukkit.getScheduler().cancelTask(metricFlushTaskId);
         }
-        if (storage != null) {
-            storage.close();
+        if (profileSweepTaskId != -1) {
+            Bukkit.getScheduler().cancelTask(profileSweepTaskId);
         }
-        if (executor != null) {
-            executor.shutdownNow();
+        if (statExpiryTaskId != -1) {
+            Bukkit.getScheduler().cancelTask(statExpiryTaskId);
+        }
+        if (journalReplayTaskId != -1) {
+            Bukkit.getScheduler().cancelTask(journalReplayTaskId);
+        }
+        getServer().getServicesManager().unregister(api);
+        if (networkSyncService != null) {
+            networkSyncService.shutdown();
         }
+        long deadline = configuration != null ? configuration.shutdownDeadlineSeconds() : 10L;
+        new ShutdownPipeline(getLogger(), Duration.ofSeconds(deadline))
+                // Queued storage tasks run first; their buffered rows are flushed by the stages after this one,
+                // which run even once the executor has used up the deadline.
+                .stage("executor", remaining -> executor == null ? ShutdownPipeline.Result.NONE
+                        : ShutdownPipeline.drain(executor, remaining))
+                .stage("title progress", remaining -> progressBuffer == null ? ShutdownPipeline.Result.NONE
+                        : flushBuffered(progressBuffer::flush, progressBuffer::pendingRows))
+                .stage("equipped titles", remaining -> equipBuffer == null ? ShutdownPipeline.Result.NONE
+                        : flushBuffered(equipBuffer::flush, equipBuffer::pendingRows))
+                .stage("weekly metrics", remaining -> weeklyRankingService == null ? ShutdownPipeline.Result.NONE
+                        : flushBuffered(weeklyRankingService::flushMetrics, weeklyRankingService::pendingMetricRows))
+                .stage("write journal", remaining -> {
+                    WriteJournal journal = storage == null ? null : storage.getJournal();
+                    if (journal == null) {
+                        return ShutdownPipeline.Result.NONE;
+                    }
+                    int replayed = storage.replayJournal(remaining);
+                    if (journal.depth() > 0) {
+                        getLogger().warning(journal.depth() + " journaled writes will be replayed on the next start.");
+                    }
+                    journal.close();
+                    return new ShutdownPipeline.Result(replayed, 0L);
+                })
+                .stage("redis", remaining -> {
+                    if (redis != null) {
+                        redis.close();
+                    }
+                    return ShutdownPipeline.Result.NONE;
+                })
+                .stage("mysql", remaining -> {
+                    if (storage != null) {
+                        storage.close();
+                    }
+                    return ShutdownPipeline.Result.NONE;
+                })
+                .run();
         getLogger().info("TitlePlus disabled.");
     }
 
+    /**
+     * Flushes a write buffer even if the shutdown deadline has passed: it is a single batch per buffer, and a
+     * batch the database rejects is journaled. Rows still pending afterwards could not be journaled either and
+     * are abandoned.
+     */
+    private static ShutdownPipeline.Result flushBuffered(IntSupplier flush, IntSupplier pending) {
+        int flushed = flush.getAsInt();
+        return new ShutdownPipeline.Result(flushed, pending.getAsInt());
+    }
+
+    /**
+     * @return worker threads for platform mode; for virtual mode the Hikari pool size, since a task beyond it
+     * would only wait for a connection
+     */
+    public int executorConcurrency(ExecutorMode mode) {
+        if (mode == ExecutorMode.VIRTUAL) {
+            return Math.max(1, configuration.storage().maximumPoolSize());
+        }
+        return Math.max(4, Runtime.getRuntime().availableProcessors());
+    }
+
     public TitlePlusConfiguration getConfigurationModel() {
         return configuration;
     }
@@ -169,10 +291,22 @@ public final class TitlePlusPlugin extends JavaPlugin {
         return seasonService;
     }
 
-    public ExecutorService getExecutor() {
+    public PriorityExecutor getExecutor() {
         return executor;
     }
 
+    public ProgressWriteBuffer getProgressBuffer() {
+        return progressBuffer;
+    }
+
+    public MySqlStorage getStorage() {
+        return storage;
+    }
+
+    public EquipWriteBuffer getEquipBuffer() {
+        return equipBuffer;
+    }
+
     public TitleRegistry getTitleRegistry() {
         return titleRegistry;
     }
@@ -193,6 +327,22 @@ public final class TitlePlusPlugin extends JavaPlugin {
         return achievementService;
     }
 
+    public MessageBatcher getMessageBatcher() {
+        return messageBatcher;
+    }
+
+    public ReloadReconciler getReloadReconciler() {
+        return reloadReconciler;
+    }
+
+    public PlayerProfileCache getProfileCache() {
+        return profileCache;
+    }
+
+    public PlayerProfileService getProfileService() {
+        return profileService;
+    }
+
     public CollectionService getCollectionService() {
         return collectionService;
     }
@@ -203,7 +353,7 @@ public final class TitlePlusPlugin extends JavaPlugin {
     }
 
     private void registerListeners() {
-        Bukkit.getPluginManager().registerEvents(new PlayerConnectionListener(titleService, statService, requirementService, collectionService, achievementService), this);
+        Bukkit.getPluginManager().registerEvents(new PlayerConnectionListener(profileService), this);
         Bukkit.getPluginManager().registerEvents(new GameplayListener(this), this);
         Bukkit.getPluginManager().registerEvents(new CollectionListener(collectionService), this);
     }
@@ -232,18 +382,34 @@ public final class TitlePlusPlugin extends JavaPlugin {
         collectionCommand.setExecutor(collectionExecutor);
     }
 
-    public void reloadAllResources() {
+    /**
+     * Reloads config.yml on the calling thread, then parses the definition files on the worker pool. Each
+     * registry swaps in its new snapshot atomically, the requirement indexes are patched with the title diff
+     * and the {@link ReloadReconciler} carries the changed effects over to the affected players.
+     *
+     * @return future completed on the main thread once every affected player has been reconciled
+     */
+    public CompletableFuture<Void> reloadAllResources() {
         reloadConfiguration();
-        FileConfiguration titlesConfig = YamlLoader.loadOrCopy(this, "titles.yml");
-        FileConfiguration setsConfig = YamlLoader.loadOrCopy(this, "sets.yml");
-        FileConfiguration statsConfig = YamlLoader.loadOrCopy(this, "stats.yml");
-        FileConfiguration achievementsConfig = YamlLoader.loadOrCopy(this, "achievements.yml");
-        titleRegistry.load(titlesConfig);
-        setRegistry.load(setsConfig);
-        statRegistry.load(statsConfig);
-        achievementRegistry.load(achievementsConfig);
-        requirementService.rebuildIndexes();
-        getLogger().info("TitlePlus configuration reloaded.");
+        return CompletableFuture.supplyAsync(() -> {
+            // Overlapping reloads run one after another, so each diff starts from the snapshot the previous one
+            // published and their reconcile work reaches the main thread in the same order.
+            synchronized (reloadLock) {
+                RegistryDiff<TitleDefinition> titles = titleRegistry.load(YamlLoader.loadOrCopy(this, "titles.yml"));
+                RegistryDiff<SetDefinition> sets = setRegistry.load(YamlLoader.loadOrCopy(this, "sets.yml"));
+                RegistryDiff<StatDefinition> stats = statRegistry.load(YamlLoader.loadOrCopy(this, "stats.yml"));
+                RegistryDiff<AchievementDefinition> achievements = achievementRegistry.load(YamlLoader.loadOrCopy(this, "achievements.yml"));
+                requirementService.applyTitleChanges(titles);
+                getLogger().info("TitlePlus definitions reloaded: titles " + titles.summary() + ", sets " + sets.summary()
+                        + ", stats " + stats.summary() + ", achievements " + achievements.summary());
+                return new ReloadDiff(titles, sets);
+            }
+        }, executor).thenComposeAsync(diff -> reloadReconciler.reconcile(diff.titles(), diff.sets()),
+                Bukkit.getScheduler().getMainThreadExecutor(this)
+        ).thenRun(() -> getLogger().info("TitlePlus configuration reloaded."));
+    }
+
+    private record ReloadDiff(RegistryDiff<TitleDefinition> titles, RegistryDiff<SetDefinition> sets) {
     }
 
     private void scheduleTasks() {
@@ -253,5 +419,25 @@ public final class TitlePlusPlugin extends JavaPlugin {
         }
         long weeklyIntervalTicks = Math.max(20 * 60L, configuration.weeklyEvaluationIntervalMinutes() * 60L * 20L);
         weeklyTaskId = Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> weeklyRankingService.evaluate(weeklyRankingService.getDefaultMetric()), weeklyIntervalTicks, weeklyIntervalTicks).getTaskId();
+        long progressFlushTicks = Math.max(1L, configuration.progressFlushTicks());
+        progressFlushTaskId = Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
+            progressBuffer.flush();
+            // Retries equips whose write failed; new equips are written as soon as they are queued.
+            equipBuffer.flush();
+        }, progressFlushTicks, progressFlushTicks).getTaskId();
+        long metricFlushTicks = Math.max(1L, configuration.weeklyFlushIntervalSeconds()) * 20L;
+        metricFlushTaskId = Bukkit.getScheduler().runTaskTimerAsynchronously(this, weeklyRankingService::flushMetrics, metricFlushTicks, metricFlushTicks).getTaskId();
+        long sweepTicks = Math.max(1L, configuration.sweepIntervalSeconds()) * 20L;
+        profileSweepTaskId = Bukkit.getScheduler().runTaskTimer(this, profileService::sweep, sweepTicks, sweepTicks).getTaskId();
+        statExpiryTaskId = Bukkit.getScheduler().runTaskTimer(this, statService::expireModifiers, 20L, 20L).getTaskId();
+        if (storage.getJournal() != null) {
+            long replayTicks = Math.max(1L, configuration.journalReplaySeconds()) * 20L;
+            journalReplayTaskId = Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
+                int replayed = storage.replayJournal();
+                if (replayed > 0) {
+                    getLogger().info("Replayed " + replayed + " journaled writes (" + storage.getJournal().depth() + " left).");
+                }
+            }, replayTicks, replayTicks).getTaskId();
+        }
     }
 }
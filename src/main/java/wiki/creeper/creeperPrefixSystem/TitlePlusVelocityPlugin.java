@@ -12,6 +12,7 @@ import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.ProxyServer;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import wiki.creeper.creeperPrefixSystem.config.ExecutorMode;
 import wiki.creeper.creeperPrefixSystem.config.RedisConfig;
 import wiki.creeper.creeperPrefixSystem.redis.RedisBridge;
 import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
@@ -22,6 +23,8 @@ import wiki.creeper.creeperPrefixSystem.service.ProxySeasonCoordinator;
 import wiki.creeper.creeperPrefixSystem.service.ProxyWeeklyCoordinator;
 import wiki.creeper.creeperPrefixSystem.data.season.SeasonState;
 import wiki.creeper.creeperPrefixSystem.data.ranking.WeeklyStanding;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
+import wiki.creeper.creeperPrefixSystem.util.ShutdownPipeline;
 
 import java.nio.file.Path;
 import java.sql.SQLException;
@@ -31,8 +34,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
 
@@ -44,13 +45,8 @@ public final class TitlePlusVelocityPlugin {
     private final CommandManager commandManager;
     private final Path dataDirectory;
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(4, r -> {
-        Thread thread = new Thread(r, "TitlePlus-ProxyAsync");
-        thread.setDaemon(true);
-        return thread;
-    });
-
     private ProxyConfig config;
+    private PriorityExecutor executor;
     private MySqlStorage storage;
     private RedisBridge redis;
     private ProxySeasonCoordinator seasonCoordinator;
@@ -76,6 +72,10 @@ public final class TitlePlusVelocityPlugin {
         config = loader.load();
         logger.info("TitlePlus proxy configuration loaded from " + dataDirectory.resolve("titleplus-proxy.json"));
 
+        ExecutorMode mode = ExecutorMode.parse(config.executorMode());
+        // The proxy only runs coordinator work, so every task shares the interactive lane.
+        executor = new PriorityExecutor("TitlePlus-ProxyAsync", mode,
+                mode == ExecutorMode.VIRTUAL ? Math.max(1, config.mysql().maximumPoolSize()) : 4, 1024, logger, () -> true);
         storage = new MySqlStorage(logger, config.mysql());
         try {
             storage.init();
@@ -86,7 +86,7 @@ public final class TitlePlusVelocityPlugin {
 
         RedisConfig redisConfig = config.redis();
         if (redisConfig.enabled()) {
-            redis = new RedisBridge(logger, redisConfig);
+            redis = new RedisBridge(logger, redisConfig, mode);
             redis.connect();
         } else {
             redis = null;
@@ -108,13 +108,23 @@ public final class TitlePlusVelocityPlugin {
     @Subscribe
     public void handleShutdown(ProxyShutdownEvent event) {
         cancelTasks();
-        if (redis != null) {
-            redis.close();
-        }
-        if (storage != null) {
-            storage.close();
-        }
-        executor.shutdownNow();
+        long deadline = config != null ? config.shutdownDeadlineSeconds() : 10L;
+        new ShutdownPipeline(logger, Duration.ofSeconds(deadline))
+                .stage("executor", remaining -> executor == null ? ShutdownPipeline.Result.NONE
+                        : ShutdownPipeline.drain(executor, remaining))
+                .stage("redis", remaining -> {
+                    if (redis != null) {
+                        redis.close();
+                    }
+                    return ShutdownPipeline.Result.NONE;
+                })
+                .stage("mysql", remaining -> {
+                    if (storage != null) {
+                        storage.close();
+                    }
+                    return ShutdownPipeline.Result.NONE;
+                })
+                .run();
     }
 
     private void registerCommands() {
@@ -11,27 +11,66 @@ import wiki.creeper.creeperPrefixSystem.data.season.SeasonState;
 import wiki.creeper.creeperPrefixSystem.data.set.SetDefinition;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatDefinition;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatModifier;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatVector;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleDefinition;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Public API exposed via Bukkit's {@link org.bukkit.plugin.ServicesManager} so external plugins can
  * interact with the TitlePlus systems without depending on internal implementation classes.
+ * <p>
+ * The synchronous lookups other than the stat reads may load an uncached player from the database on the
+ * calling thread. Prefer the {@code *Async} variants from the main thread; their futures complete off-thread
+ * for reads and on the main thread for changes.
  */
 public interface TitlePlusAPI {
 
     /**
-     * Fetches a computed stat value for the provided player by applying base value and all modifiers.
+     * Fetches a computed stat value for the provided player by applying base value and all modifiers. Never
+     * blocks: while the player's profile is not loaded the stat's default is returned and the profile is
+     * loaded in the background; use {@link #getStatAsync(UUID, String)} to wait for the real value.
      *
      * @param uuid   player unique id
      * @param statId stat identifier
-     * @return computed stat value or the default definition if the player has none
+     * @return computed stat value or the default definition if the player has none or is not loaded yet
      */
     double getStat(@NotNull UUID uuid, @NotNull String statId);
 
+    /**
+     * Fetches every computed stat of the player at once, all taken from the same state. Like
+     * {@link #getStat(UUID, String)} this returns the defaults while the profile is not loaded yet.
+     *
+     * @param uuid player unique id
+     * @return immutable stat values of all defined stats
+     */
+    @NotNull StatVector getStats(@NotNull UUID uuid);
+
+    /**
+     * Fetches one computed stat for many players, e.g. for leaderboards. Only players whose profile is
+     * currently loaded (online or recently accessed) are included; others are omitted instead of being loaded.
+     *
+     * @param uuids  player unique ids
+     * @param statId stat identifier
+     * @return immutable values of the loaded players in the iteration order of {@code uuids}; empty if the
+     * stat is not defined
+     */
+    @NotNull Map<UUID, Double> getStats(@NotNull Collection<UUID> uuids, @NotNull String statId);
+
+    /**
+     * Async variant of {@link #getStat(UUID, String)} that never blocks the caller on a profile load.
+     */
+    @NotNull CompletableFuture<Double> getStatAsync(@NotNull UUID uuid, @NotNull String statId);
+
+    /**
+     * Async variant of {@link #getStats(UUID)}.
+     */
+    @NotNull CompletableFuture<StatVector> getStatsAsync(@NotNull UUID uuid);
+
     /**
      * Adds a modifier to the player's statistic. When {@code expireAt} is null the modifier is persistent
      * until explicitly removed.
@@ -53,6 +92,12 @@ public interface TitlePlusAPI {
      */
     boolean grantTitle(@NotNull UUID uuid, @NotNull String titleId);
 
+    /**
+     * Async variant of {@link #grantTitle(UUID, String)}. The profile is loaded off-thread and the grant is
+     * applied on the main thread, where its event is fired.
+     */
+    @NotNull CompletableFuture<Boolean> grantTitleAsync(@NotNull UUID uuid, @NotNull String titleId);
+
     /**
      * Equips the specified title for the player if it is owned and active. The caller should ensure the
      * player is currently online for best feedback, but the system will persist the state regardless.
@@ -64,6 +109,16 @@ public interface TitlePlusAPI {
      */
     boolean unequipTitle(@NotNull UUID uuid);
 
+    /**
+     * Async variant of {@link #equipTitle(UUID, String)}, applied on the main thread once the profile is loaded.
+     */
+    @NotNull CompletableFuture<Boolean> equipTitleAsync(@NotNull UUID uuid, @NotNull String titleId);
+
+    /**
+     * Async variant of {@link #unequipTitle(UUID)}, applied on the main thread once the profile is loaded.
+     */
+    @NotNull CompletableFuture<Boolean> unequipTitleAsync(@NotNull UUID uuid);
+
     /**
      * Queries whether the player is currently part of the weekly top3 cache.
      */
@@ -84,6 +139,16 @@ public interface TitlePlusAPI {
      */
     @NotNull Collection<String> getOwnedTitles(@NotNull UUID uuid);
 
+    /**
+     * Like {@link #getEquippedTitle(UUID)}, but loads the player off-thread when they are not cached.
+     */
+    @NotNull CompletableFuture<Optional<String>> getEquippedTitleAsync(@NotNull UUID uuid);
+
+    /**
+     * Like {@link #getOwnedTitles(UUID)}, but loads the player off-thread when they are not cached.
+     */
+    @NotNull CompletableFuture<Collection<String>> getOwnedTitlesAsync(@NotNull UUID uuid);
+
     /**
      * Attempts to flush any cached state for the supplied offline player.
      */
@@ -128,6 +193,8 @@ public interface TitlePlusAPI {
      */
     long getRequirementProgress(@NotNull UUID uuid, @NotNull String titleId);
 
+    @NotNull CompletableFuture<Long> getRequirementProgressAsync(@NotNull UUID uuid, @NotNull String titleId);
+
     /**
      * Convenience helper for SELL requirements.
      */
@@ -144,12 +211,18 @@ public interface TitlePlusAPI {
 
     @NotNull Collection<CollectionEntry> getCollectionEntries(@NotNull UUID uuid);
 
+    @NotNull CompletableFuture<Collection<CollectionEntry>> getCollectionEntriesAsync(@NotNull UUID uuid);
+
     boolean hasCollectionEntry(@NotNull UUID uuid, @NotNull Material material);
 
     @NotNull Collection<AchievementCompletion> getAchievementCompletions(@NotNull UUID uuid);
 
     boolean hasAchievement(@NotNull UUID uuid, @NotNull String achievementId);
 
+    @NotNull CompletableFuture<Collection<AchievementCompletion>> getAchievementCompletionsAsync(@NotNull UUID uuid);
+
+    @NotNull CompletableFuture<Boolean> hasAchievementAsync(@NotNull UUID uuid, @NotNull String achievementId);
+
     @NotNull Collection<AchievementDefinition> getAchievementDefinitions();
 
     @NotNull Optional<AchievementDefinition> getAchievementDefinition(@NotNull String achievementId);
@@ -1,22 +1,28 @@
 package wiki.creeper.creeperPrefixSystem.api;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import wiki.creeper.creeperPrefixSystem.data.achievement.AchievementCompletion;
 import wiki.creeper.creeperPrefixSystem.data.achievement.AchievementDefinition;
 import wiki.creeper.creeperPrefixSystem.data.achievement.AchievementRegistry;
 import wiki.creeper.creeperPrefixSystem.data.collection.CollectionEntry;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfile;
 import wiki.creeper.creeperPrefixSystem.data.season.SeasonState;
 import wiki.creeper.creeperPrefixSystem.data.set.SetDefinition;
 import wiki.creeper.creeperPrefixSystem.data.set.SetRegistry;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatDefinition;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatIndex;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatModifier;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatRegistry;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatVector;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleDefinition;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleRegistry;
 import wiki.creeper.creeperPrefixSystem.service.AchievementService;
 import wiki.creeper.creeperPrefixSystem.service.CollectionService;
+import wiki.creeper.creeperPrefixSystem.service.PlayerProfileService;
 import wiki.creeper.creeperPrefixSystem.service.RequirementService;
 import wiki.creeper.creeperPrefixSystem.service.SeasonService;
 import wiki.creeper.creeperPrefixSystem.service.StatService;
@@ -24,9 +30,14 @@ import wiki.creeper.creeperPrefixSystem.service.TitleService;
 import wiki.creeper.creeperPrefixSystem.service.WeeklyRankingService;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Default implementation bridging internal services to the public API contract.
@@ -44,6 +55,8 @@ public final class TitlePlusAPIImpl implements TitlePlusAPI {
     private final CollectionService collectionService;
     private final AchievementService achievementService;
     private final AchievementRegistry achievementRegistry;
+    private final PlayerProfileService profileService;
+    private final Executor mainThread;
 
     public TitlePlusAPIImpl(StatService statService,
                             TitleService titleService,
@@ -55,7 +68,9 @@ public final class TitlePlusAPIImpl implements TitlePlusAPI {
                             RequirementService requirementService,
                             CollectionService collectionService,
                             AchievementService achievementService,
-                            AchievementRegistry achievementRegistry) {
+                            AchievementRegistry achievementRegistry,
+                            PlayerProfileService profileService,
+                            Plugin plugin) {
         this.statService = statService;
         this.titleService = titleService;
         this.weeklyRankingService = weeklyRankingService;
@@ -67,6 +82,22 @@ public final class TitlePlusAPIImpl implements TitlePlusAPI {
         this.collectionService = collectionService;
         this.achievementService = achievementService;
         this.achievementRegistry = achievementRegistry;
+        this.profileService = profileService;
+        this.mainThread = Bukkit.getScheduler().getMainThreadExecutor(plugin);
+    }
+
+    /**
+     * Runs a read once the profile is loaded, on whichever thread completed the load.
+     */
+    private <T> CompletableFuture<T> read(UUID uuid, Function<PlayerProfile, T> reader) {
+        return profileService.loadAsync(uuid).thenApply(reader);
+    }
+
+    /**
+     * Runs a change on the main thread once the profile is loaded, so its events never block a worker.
+     */
+    private <T> CompletableFuture<T> write(UUID uuid, Supplier<T> action) {
+        return profileService.loadAsync(uuid).thenApplyAsync(profile -> action.get(), mainThread);
     }
 
     @Override
@@ -74,6 +105,30 @@ public final class TitlePlusAPIImpl implements TitlePlusAPI {
         return statService.getStat(uuid, statId);
     }
 
+    @Override
+    public @NotNull StatVector getStats(@NotNull UUID uuid) {
+        return statService.getStats(uuid);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Double> getStatAsync(@NotNull UUID uuid, @NotNull String statId) {
+        return read(uuid, profile -> {
+            int ordinal = StatIndex.ordinalOf(statId);
+            StatDefinition definition = statRegistry.get(ordinal);
+            return definition == null ? 0.0D : profile.stats().resolve(ordinal, definition, statRegistry.version());
+        });
+    }
+
+    @Override
+    public @NotNull CompletableFuture<StatVector> getStatsAsync(@NotNull UUID uuid) {
+        return read(uuid, profile -> profile.stats().resolveAll(statRegistry));
+    }
+
+    @Override
+    public @NotNull Map<UUID, Double> getStats(@NotNull Collection<UUID> uuids, @NotNull String statId) {
+        return statService.getStats(uuids, statId);
+    }
+
     @Override
     public void addModifier(@NotNull UUID uuid,
                             @NotNull String statId,
@@ -94,6 +149,11 @@ public final class TitlePlusAPIImpl implements TitlePlusAPI {
         return titleService.grantTitle(uuid, titleId);
     }
 
+    @Override
+    public @NotNull CompletableFuture<Boolean> grantTitleAsync(@NotNull UUID uuid, @NotNull String titleId) {
+        return write(uuid, () -> titleService.grantTitle(uuid, titleId));
+    }
+
     @Override
     public boolean equipTitle(@NotNull UUID uuid, @NotNull String titleId) {
         return titleService.equipTitle(uuid, titleId);
@@ -104,6 +164,16 @@ public final class TitlePlusAPIImpl implements TitlePlusAPI {
         return titleService.unequip(uuid);
     }
 
+    @Override
+    public @NotNull CompletableFuture<Boolean> equipTitleAsync(@NotNull UUID uuid, @NotNull String titleId) {
+        return write(uuid, () -> titleService.equipTitle(uuid, titleId));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> unequipTitleAsync(@NotNull UUID uuid) {
+        return write(uuid, () -> titleService.unequip(uuid));
+    }
+
     @Override
     public boolean isWeeklyTop3(@NotNull UUID uuid) {
         return weeklyRankingService.isTop3(uuid);
@@ -125,14 +195,19 @@ public final class TitlePlusAPIImpl implements TitlePlusAPI {
         return Set.copyOf(owned);
     }
 
+    @Override
+    public @NotNull CompletableFuture<Optional<String>> getEquippedTitleAsync(@NotNull UUID uuid) {
+        return read(uuid, profile -> profile.titles().getEquippedTitle());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Collection<String>> getOwnedTitlesAsync(@NotNull UUID uuid) {
+        return read(uuid, profile -> Set.copyOf(profile.titles().getOwnedTitles()));
+    }
+
     @Override
     public void invalidatePlayer(@NotNull OfflinePlayer player) {
-        UUID uuid = player.getUniqueId();
-        titleService.unload(uuid);
-        statService.unload(uuid);
-        requirementService.unload(uuid);
-        collectionService.unload(uuid);
-        achievementService.unload(uuid);
+        profileService.invalidate(player.getUniqueId());
     }
 
     @Override
@@ -180,6 +255,11 @@ public final class TitlePlusAPIImpl implements TitlePlusAPI {
         return requirementService.getProgress(uuid, titleId);
     }
 
+    @Override
+    public @NotNull CompletableFuture<Long> getRequirementProgressAsync(@NotNull UUID uuid, @NotNull String titleId) {
+        return read(uuid, profile -> profile.progress().getProgress(titleId));
+    }
+
     @Override
     public void recordSale(@NotNull UUID uuid, @NotNull Material material, long amount) {
         requirementService.handleSell(uuid, material, amount);
@@ -195,6 +275,11 @@ public final class TitlePlusAPIImpl implements TitlePlusAPI {
         return collectionService.getEntries(uuid);
     }
 
+    @Override
+    public @NotNull CompletableFuture<Collection<CollectionEntry>> getCollectionEntriesAsync(@NotNull UUID uuid) {
+        return read(uuid, profile -> profile.collection().getEntries());
+    }
+
     @Override
     public boolean hasCollectionEntry(@NotNull UUID uuid, @NotNull Material material) {
         return collectionService.hasEntry(uuid, material);
@@ -210,6 +295,16 @@ public final class TitlePlusAPIImpl implements TitlePlusAPI {
         return achievementService.hasCompletion(uuid, achievementId);
     }
 
+    @Override
+    public @NotNull CompletableFuture<Collection<AchievementCompletion>> getAchievementCompletionsAsync(@NotNull UUID uuid) {
+        return read(uuid, profile -> profile.achievements().getCompletions());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> hasAchievementAsync(@NotNull UUID uuid, @NotNull String achievementId) {
+        return read(uuid, profile -> profile.achievements().hasCompletion(achievementId));
+    }
+
     @Override
     public @NotNull Collection<AchievementDefinition> getAchievementDefinitions() {
         return achievementRegistry.all();
@@ -10,17 +10,36 @@ import org.bukkit.command.TabCompleter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import wiki.creeper.creeperPrefixSystem.TitlePlusPlugin;
+import wiki.creeper.creeperPrefixSystem.config.ExecutorMode;
 import wiki.creeper.creeperPrefixSystem.data.season.SeasonState;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleDefinition;
+import wiki.creeper.creeperPrefixSystem.service.JoinBurstBenchmark;
+import wiki.creeper.creeperPrefixSystem.service.PlayerProfileCache;
+import wiki.creeper.creeperPrefixSystem.service.PlayerProfileService;
+import wiki.creeper.creeperPrefixSystem.service.PlayerRetentionCache;
+import wiki.creeper.creeperPrefixSystem.service.ReloadReconciler;
+import wiki.creeper.creeperPrefixSystem.service.StatService;
+import wiki.creeper.creeperPrefixSystem.service.WeeklyRankingService;
+import wiki.creeper.creeperPrefixSystem.storage.EquipWriteBuffer;
+import wiki.creeper.creeperPrefixSystem.storage.ProgressWriteBuffer;
+import wiki.creeper.creeperPrefixSystem.storage.WriteJournal;
+import wiki.creeper.creeperPrefixSystem.util.EventDispatcher;
+import wiki.creeper.creeperPrefixSystem.util.MessageBatcher;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 
 /**
  * Administrative command handler for TitlePlus allowing manual management and diagnostics.
  */
 public final class TitleAdminCommand implements CommandExecutor, TabCompleter {
 
+    private static final int MAX_BENCH_JOINS = 5000;
+
     private final TitlePlusPlugin plugin;
+    private final AtomicBoolean benchRunning = new AtomicBoolean();
 
     public TitleAdminCommand(TitlePlusPlugin plugin) {
         this.plugin = plugin;
@@ -36,7 +55,7 @@ public final class TitleAdminCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         if (args.length == 0) {
-            sender.sendMessage("§e/titleadmin <grant|revoke|reload|season|weekly|progress|sell>");
+            sender.sendMessage("§e/titleadmin <grant|revoke|reload|season|weekly|progress|sell|metrics|bench>");
             return true;
         }
         String sub = args[0].toLowerCase(Locale.ROOT);
@@ -48,6 +67,8 @@ public final class TitleAdminCommand implements CommandExecutor, TabCompleter {
             case "weekly" -> handleWeekly(sender, args);
             case "progress" -> handleProgress(sender, args);
             case "sell" -> handleSell(sender, args);
+            case "metrics" -> handleMetrics(sender);
+            case "bench" -> handleBench(sender, args);
             default -> sender.sendMessage("§c알 수 없는 하위 명령입니다.");
         }
         return true;
@@ -92,8 +113,15 @@ public final class TitleAdminCommand implements CommandExecutor, TabCompleter {
     }
 
     private void handleReload(CommandSender sender) {
-        plugin.reloadAllResources();
-        sender.sendMessage("§aTitlePlus 설정과 데이터가 리로드되었습니다.");
+        sender.sendMessage("§7TitlePlus 데이터를 리로드하는 중입니다...");
+        plugin.reloadAllResources().whenCompleteAsync((ignored, error) -> {
+            if (error != null) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to reload TitlePlus", error);
+                sender.sendMessage("§c리로드 중 오류가 발생했습니다. 콘솔을 확인하세요.");
+                return;
+            }
+            sender.sendMessage("§aTitlePlus 설정과 데이터가 리로드되었습니다.");
+        }, Bukkit.getScheduler().getMainThreadExecutor(plugin));
     }
 
     private void handleSeason(CommandSender sender, String[] args) {
@@ -171,6 +199,111 @@ public final class TitleAdminCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage("§a판매 기록이 반영되었습니다.");
     }
 
+    private void handleMetrics(CommandSender sender) {
+        ProgressWriteBuffer progress = plugin.getProgressBuffer();
+        sender.sendMessage("§6[TitlePlus] 저장 지표");
+        sender.sendMessage("§7진행도 버퍼: §f" + progress.pendingRows() + "행 대기 §7(누적 +" + progress.pendingDelta()
+                + ", 지연 " + progress.flushLagMillis() + "ms)");
+        sender.sendMessage("§7마지막 플러시: §f" + progress.lastFlushSize() + "행 / " + progress.lastFlushMillis()
+                + "ms §7(총 " + progress.flushedRows() + "행, 실패 " + progress.failedFlushes() + "회)");
+        WriteJournal journal = plugin.getStorage().getJournal();
+        if (journal != null) {
+            sender.sendMessage("§7쓰기 저널: §f" + journal.depth() + "건 대기 §7(기록 " + journal.appendedRecords() + "건, 재적용 "
+                    + journal.replayedRecords() + "건, 최근 " + String.format("%.0f", journal.lastReplayRate()) + "건/초)");
+        }
+        PriorityExecutor executor = plugin.getExecutor();
+        sender.sendMessage("§7DB 실행 모드: §f" + executor.mode().name().toLowerCase(Locale.ROOT) + " §7(동시 실행 "
+                + plugin.executorConcurrency(executor.mode()) + ")");
+        for (PriorityExecutor.Lane lane : PriorityExecutor.Lane.values()) {
+            sender.sendMessage("§7DB 작업 " + laneLabel(lane) + ": §f" + executor.depth(lane) + "/" + executor.capacity() + " 대기 §7(완료 "
+                    + executor.completed(lane) + "건, 초과 적재 " + executor.overflowed(lane) + "건, 호출 스레드 실행 "
+                    + executor.callerRuns(lane) + "건, 버퍼 보류 " + executor.deferred(lane) + "건)");
+        }
+        EquipWriteBuffer equips = plugin.getEquipBuffer();
+        sender.sendMessage("§7칭호 장착 기록: §f" + equips.writtenEquips() + "건 기록 §7(요청 " + equips.queuedEquips() + "건, 대기 "
+                + equips.pendingRows() + "건, 실패 " + equips.failedFlushes() + "회)");
+        WeeklyRankingService weekly = plugin.getWeeklyRankingService();
+        sender.sendMessage("§7주간 지표 집계: §f" + weekly.pendingMetricRows() + "행 대기 §7(총 " + weekly.flushedMetricRows() + "행 기록)");
+        StatService stats = plugin.getStatService();
+        sender.sendMessage("§7임시 스탯 만료: §f" + stats.scheduledExpiries() + "건 예약 §7(총 " + stats.expiredModifiers() + "건 만료 처리)");
+        MessageBatcher messages = plugin.getMessageBatcher();
+        sender.sendMessage("§7알림 메시지: §f" + messages.sentMessages() + "건 전송 §7(요청 " + messages.queuedMessages() + "건, 병합·생략 "
+                + (messages.queuedMessages() - messages.sentMessages()) + "건)");
+        sender.sendMessage("§7비동기 이벤트: §f" + EventDispatcher.pendingEvents() + "건 대기 §7(총 " + EventDispatcher.batchedEvents()
+                + "건, 메인 스레드 작업 " + EventDispatcher.drainTasks() + "회)");
+        ReloadReconciler reconciler = plugin.getReloadReconciler();
+        sender.sendMessage("§7리로드 반영: §f" + reconciler.pending() + "건 대기 §7(총 " + reconciler.reconciledSteps() + "건, "
+                + reconciler.slices() + "틱 분할, 장착 색인 " + plugin.getTitleService().indexedPlayers() + "명)");
+        PlayerProfileCache cache = plugin.getProfileCache();
+        sender.sendMessage("§7프로필 캐시: §f" + cache.size() + "명 §7(항목 약 " + cache.estimatedEntries() + "개, 늦게 끝난 로드 폐기 "
+                + cache.staleLoads() + "회, 정리 " + plugin.getProfileService().sweptProfiles() + "명)");
+        sender.sendMessage("§7주 스레드 동기 로드: §f" + cache.mainThreadLoads() + "회");
+        PlayerProfileService profiles = plugin.getProfileService();
+        sender.sendMessage("§7접속 프로필: §f준비됨 " + profiles.readyJoins() + " / 미준비 " + profiles.notReadyJoins()
+                + " §7(사전 로드 시간 초과 " + profiles.prefetchTimeouts() + "회, 대기 " + profiles.pendingPrefetches() + "건)");
+        PlayerRetentionCache retention = profiles.getRetention();
+        sender.sendMessage("§7재접속 캐시: §f" + retention.size() + "명 보관 §7(적중 " + retention.hits() + ", 실패 " + retention.misses()
+                + ", 만료 " + retention.expirations() + ", 용량 제거 " + retention.evictions() + ", 무효화 " + retention.invalidations() + ")");
+    }
+
+    private void handleBench(CommandSender sender, String[] args) {
+        if (args.length < 3 || !args[1].equalsIgnoreCase("joins")) {
+            sender.sendMessage("§c/titleadmin bench joins <횟수>");
+            return;
+        }
+        int joins;
+        try {
+            joins = Integer.parseInt(args[2]);
+        } catch (NumberFormatException ex) {
+            sender.sendMessage("§c횟수는 숫자여야 합니다.");
+            return;
+        }
+        if (joins < 1 || joins > MAX_BENCH_JOINS) {
+            sender.sendMessage("§c횟수는 1~" + MAX_BENCH_JOINS + " 사이여야 합니다.");
+            return;
+        }
+        if (!benchRunning.compareAndSet(false, true)) {
+            sender.sendMessage("§c이미 벤치마크가 실행 중입니다.");
+            return;
+        }
+        sender.sendMessage("§7접속 " + joins + "건 동시 로드를 platform/virtual 모드로 측정합니다...");
+        Thread.ofPlatform().name("TitlePlus-Bench").daemon(true).start(() -> {
+            try (JoinBurstBenchmark benchmark = new JoinBurstBenchmark(plugin.getConfigurationModel().storage(), plugin.getLogger())) {
+                int concurrency = benchmark.poolSize();
+                benchmark.warmUp(concurrency);
+                List<JoinBurstBenchmark.Result> results = new ArrayList<>();
+                for (ExecutorMode mode : ExecutorMode.values()) {
+                    results.add(benchmark.run(mode, concurrency, joins));
+                }
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    sender.sendMessage("§6[TitlePlus] 접속 버스트 " + joins + "건");
+                    sender.sendMessage("§8존재하지 않는 UUID의 프로필 로드(빈 인덱스 조회)를 별도 연결 " + concurrency
+                            + "개로 측정한 값입니다. 실제 플레이어 데이터 로드 비용은 포함되지 않습니다.");
+                    for (JoinBurstBenchmark.Result result : results) {
+                        sender.sendMessage("§7" + result.mode().name().toLowerCase(Locale.ROOT) + " §8(동시 " + result.concurrency() + ")§7: §f전체 "
+                                + result.wallMillis() + "ms §7p50 " + String.format("%.1f", result.p50Millis()) + "ms, p95 "
+                                + String.format("%.1f", result.p95Millis()) + "ms, 최대 " + String.format("%.1f", result.maxMillis()) + "ms");
+                    }
+                });
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                plugin.getLogger().log(Level.SEVERE, "Join burst benchmark failed", ex);
+                Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage("§c벤치마크 중 오류가 발생했습니다. 콘솔을 확인하세요."));
+            } finally {
+                benchRunning.set(false);
+            }
+        });
+    }
+
+    private static String laneLabel(PriorityExecutor.Lane lane) {
+        return switch (lane) {
+            case PLAYER_LOAD -> "접속 로드";
+            case INTERACTIVE -> "상호작용";
+            case BACKGROUND -> "백그라운드";
+        };
+    }
+
     @Override
     public @Nullable List<String> onTabComplete(@NotNull CommandSender sender,
                                                 @NotNull Command command,
@@ -180,7 +313,7 @@ public final class TitleAdminCommand implements CommandExecutor, TabCompleter {
             return List.of();
         }
         if (args.length == 1) {
-            return Arrays.asList("grant", "revoke", "reload", "season", "weekly", "progress", "sell");
+            return Arrays.asList("grant", "revoke", "reload", "season", "weekly", "progress", "sell", "metrics", "bench");
         }
         if (args.length == 2) {
             switch (args[0].toLowerCase(Locale.ROOT)) {
@@ -200,6 +333,9 @@ public final class TitleAdminCommand implements CommandExecutor, TabCompleter {
                 case "weekly" -> {
                     return List.of("evaluate");
                 }
+                case "bench" -> {
+                    return List.of("joins");
+                }
             }
         }
         if (args.length == 3) {
@@ -0,0 +1,41 @@
+package wiki.creeper.creeperPrefixSystem.config;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Which threads run blocking JDBC and Redis calls ({@code executor.mode}).
+ */
+public enum ExecutorMode {
+    /** A fixed set of daemon platform threads. */
+    PLATFORM,
+    /** A virtual thread per task, with concurrency limited to the connection pool size. */
+    VIRTUAL;
+
+    public static ExecutorMode parse(String value) {
+        if (value == null) {
+            return PLATFORM;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return PLATFORM;
+        }
+    }
+
+    /**
+     * @return a factory for threads named {@code name-1}, {@code name-2}, ...
+     */
+    public ThreadFactory threadFactory(String name) {
+        if (this == VIRTUAL) {
+            return Thread.ofVirtual().name(name + "-", 1).factory();
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
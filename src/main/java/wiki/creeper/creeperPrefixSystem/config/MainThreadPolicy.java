@@ -0,0 +1,24 @@
+package wiki.creeper.creeperPrefixSystem.config;
+
+import java.util.Locale;
+
+/**
+ * What to do when a call would block the primary server thread on a player profile load
+ * ({@code api.strict-main-thread}).
+ */
+public enum MainThreadPolicy {
+    OFF,
+    LOG,
+    THROW;
+
+    public static MainThreadPolicy parse(String value) {
+        if (value == null) {
+            return OFF;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return OFF;
+        }
+    }
+}
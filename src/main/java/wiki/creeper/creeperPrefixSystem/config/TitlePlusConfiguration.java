@@ -12,10 +12,22 @@ public final class TitlePlusConfiguration {
     private final RedisConfig redisConfig;
     private final boolean debugLogging;
     private final long cacheExpireSeconds;
+    private final int maxRetainedPlayers;
+    private final long sweepIntervalSeconds;
     private final long statSyncSeconds;
+    private final long progressFlushTicks;
+    private final long prefetchTimeoutMillis;
+    private final MainThreadPolicy strictMainThread;
+    private final long reloadBudgetMillis;
+    private final boolean journalEnabled;
+    private final long journalReplaySeconds;
+    private final long shutdownDeadlineSeconds;
+    private final int executorQueueCapacity;
+    private final ExecutorMode executorMode;
     private final long seasonSyncIntervalTicks;
     private final boolean seasonAutoSync;
     private final long weeklyEvaluationIntervalMinutes;
+    private final long weeklyFlushIntervalSeconds;
     private final String defaultWeeklyMetric;
     private final String nodeId;
 
@@ -23,20 +35,44 @@ public final class TitlePlusConfiguration {
                                   RedisConfig redisConfig,
                                   boolean debugLogging,
                                   long cacheExpireSeconds,
+                                  int maxRetainedPlayers,
+                                  long sweepIntervalSeconds,
                                   long statSyncSeconds,
+                                  long progressFlushTicks,
+                                  long prefetchTimeoutMillis,
+                                  MainThreadPolicy strictMainThread,
+                                  long reloadBudgetMillis,
+                                  boolean journalEnabled,
+                                  long journalReplaySeconds,
+                                  long shutdownDeadlineSeconds,
+                                  int executorQueueCapacity,
+                                  ExecutorMode executorMode,
                                   long seasonSyncIntervalTicks,
                                   boolean seasonAutoSync,
                                   long weeklyEvaluationIntervalMinutes,
+                                  long weeklyFlushIntervalSeconds,
                                   String defaultWeeklyMetric,
                                   String nodeId) {
         this.storageConfig = storageConfig;
         this.redisConfig = redisConfig;
         this.debugLogging = debugLogging;
         this.cacheExpireSeconds = cacheExpireSeconds;
+        this.maxRetainedPlayers = maxRetainedPlayers;
+        this.sweepIntervalSeconds = sweepIntervalSeconds;
         this.statSyncSeconds = statSyncSeconds;
+        this.progressFlushTicks = progressFlushTicks;
+        this.prefetchTimeoutMillis = prefetchTimeoutMillis;
+        this.strictMainThread = strictMainThread;
+        this.reloadBudgetMillis = reloadBudgetMillis;
+        this.journalEnabled = journalEnabled;
+        this.journalReplaySeconds = journalReplaySeconds;
+        this.shutdownDeadlineSeconds = shutdownDeadlineSeconds;
+        this.executorQueueCapacity = executorQueueCapacity;
+        this.executorMode = executorMode;
         this.seasonSyncIntervalTicks = seasonSyncIntervalTicks;
         this.seasonAutoSync = seasonAutoSync;
         this.weeklyEvaluationIntervalMinutes = weeklyEvaluationIntervalMinutes;
+        this.weeklyFlushIntervalSeconds = weeklyFlushIntervalSeconds;
         this.defaultWeeklyMetric = defaultWeeklyMetric;
         this.nodeId = nodeId;
     }
@@ -57,10 +93,54 @@ public final class TitlePlusConfiguration {
         return cacheExpireSeconds;
     }
 
+    public int maxRetainedPlayers() {
+        return maxRetainedPlayers;
+    }
+
+    public long sweepIntervalSeconds() {
+        return sweepIntervalSeconds;
+    }
+
     public long statSyncSeconds() {
         return statSyncSeconds;
     }
 
+    public long progressFlushTicks() {
+        return progressFlushTicks;
+    }
+
+    public long prefetchTimeoutMillis() {
+        return prefetchTimeoutMillis;
+    }
+
+    public MainThreadPolicy strictMainThread() {
+        return strictMainThread;
+    }
+
+    public long reloadBudgetMillis() {
+        return reloadBudgetMillis;
+    }
+
+    public boolean journalEnabled() {
+        return journalEnabled;
+    }
+
+    public long journalReplaySeconds() {
+        return journalReplaySeconds;
+    }
+
+    public long shutdownDeadlineSeconds() {
+        return shutdownDeadlineSeconds;
+    }
+
+    public int executorQueueCapacity() {
+        return executorQueueCapacity;
+    }
+
+    public ExecutorMode executorMode() {
+        return executorMode;
+    }
+
     public long seasonSyncIntervalTicks() {
         return seasonSyncIntervalTicks;
     }
@@ -73,6 +153,10 @@ public final class TitlePlusConfiguration {
         return weeklyEvaluationIntervalMinutes;
     }
 
+    public long weeklyFlushIntervalSeconds() {
+        return weeklyFlushIntervalSeconds;
+    }
+
     public String defaultWeeklyMetric() {
         return defaultWeeklyMetric;
     }
@@ -109,14 +193,26 @@ public final class TitlePlusConfiguration {
 
         boolean debug = config.getBoolean("logging.debug", false);
         long cacheExpire = config.getLong("cache.player-expire-seconds", 300L);
+        int maxRetained = (int) numberOr("TITLEPLUS_MAX_RETAINED_PLAYERS", config.getInt("cache.max-retained-players", 1000));
+        long sweepInterval = numberOr("TITLEPLUS_SWEEP_INTERVAL_SECONDS", config.getLong("cache.sweep-interval-seconds", 60L));
         long statSync = config.getLong("cache.stat-mod-sync-seconds", 60L);
+        long progressFlush = numberOr("TITLEPLUS_PROGRESS_FLUSH_TICKS", config.getLong("cache.progress-flush-ticks", 100L));
+        long prefetchTimeout = numberOr("TITLEPLUS_PREFETCH_TIMEOUT_MILLIS", config.getLong("cache.prefetch-timeout-millis", 3000L));
+        MainThreadPolicy strictMainThread = MainThreadPolicy.parse(envOr("TITLEPLUS_STRICT_MAIN_THREAD", config.getString("api.strict-main-thread", "off")));
+        long reloadBudget = numberOr("TITLEPLUS_RELOAD_BUDGET_MILLIS", config.getLong("reload.reconcile-budget-millis", 2L));
+        boolean journalEnabled = Boolean.parseBoolean(envOr("TITLEPLUS_JOURNAL_ENABLED", String.valueOf(config.getBoolean("journal.enabled", true))));
+        long journalReplay = numberOr("TITLEPLUS_JOURNAL_REPLAY_SECONDS", config.getLong("journal.replay-interval-seconds", 5L));
+        long shutdownDeadline = Math.max(1L, numberOr("TITLEPLUS_SHUTDOWN_DEADLINE_SECONDS", config.getLong("shutdown.deadline-seconds", 10L)));
+        int queueCapacity = (int) Math.max(16L, numberOr("TITLEPLUS_EXECUTOR_QUEUE_CAPACITY", config.getLong("executor.queue-capacity", 1024L)));
+        ExecutorMode executorMode = ExecutorMode.parse(envOr("TITLEPLUS_EXECUTOR_MODE", config.getString("executor.mode", "platform")));
         long seasonSyncTicks = config.getLong("season.sync-interval-ticks", 6000L);
         boolean seasonAuto = Boolean.parseBoolean(envOr("TITLEPLUS_SEASON_AUTO", String.valueOf(config.getBoolean("season.auto-sync", true))));
         long weeklyEval = numberOr("TITLEPLUS_WEEKLY_EVAL_MIN", config.getLong("weekly.evaluation-interval-minutes", 5L));
+        long weeklyFlush = numberOr("TITLEPLUS_WEEKLY_FLUSH_SECONDS", config.getLong("weekly.flush-interval-seconds", 5L));
         String defaultMetric = envOr("TITLEPLUS_WEEKLY_METRIC", config.getString("weekly.metrics.default", "FARMING_POINTS"));
         String nodeId = envOr("TITLEPLUS_NODE_ID", config.getString("network.node-id", "paper-node"));
 
-        return new TitlePlusConfiguration(storage, redis, debug, cacheExpire, statSync, seasonSyncTicks, seasonAuto, weeklyEval, defaultMetric, nodeId);
+        return new TitlePlusConfiguration(storage, redis, debug, cacheExpire, maxRetained, sweepInterval, statSync, progressFlush, prefetchTimeout, strictMainThread, reloadBudget, journalEnabled, journalReplay, shutdownDeadline, queueCapacity, executorMode, seasonSyncTicks, seasonAuto, weeklyEval, weeklyFlush, defaultMetric, nodeId);
     }
 
     private static String envOr(String key, String fallback) {
@@ -0,0 +1,68 @@
+package wiki.creeper.creeperPrefixSystem.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Difference between two registry snapshots, keyed by definition id. Consumers of a reload use it to touch
+ * only what actually changed.
+ *
+ * @param added   definitions that only exist in the new snapshot
+ * @param removed definitions that only existed in the old snapshot
+ * @param changed ids present in both snapshots whose definitions are no longer equal
+ */
+public record RegistryDiff<T>(Map<String, T> added, Map<String, T> removed, Map<String, Change<T>> changed) {
+
+    public record Change<T>(T before, T after) {
+    }
+
+    public static <T> RegistryDiff<T> of(Map<String, T> before, Map<String, T> after) {
+        Map<String, T> added = new LinkedHashMap<>();
+        Map<String, T> removed = new LinkedHashMap<>();
+        Map<String, Change<T>> changed = new LinkedHashMap<>();
+        for (Map.Entry<String, T> entry : after.entrySet()) {
+            T previous = before.get(entry.getKey());
+            if (previous == null) {
+                added.put(entry.getKey(), entry.getValue());
+            } else if (!previous.equals(entry.getValue())) {
+                changed.put(entry.getKey(), new Change<>(previous, entry.getValue()));
+            }
+        }
+        for (Map.Entry<String, T> entry : before.entrySet()) {
+            if (!after.containsKey(entry.getKey())) {
+                removed.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return new RegistryDiff<>(Collections.unmodifiableMap(added), Collections.unmodifiableMap(removed),
+                Collections.unmodifiableMap(changed));
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    /**
+     * @return definitions leaving the registry: removed ones and the old versions of changed ones
+     */
+    public List<T> outgoing() {
+        List<T> outgoing = new ArrayList<>(removed.values());
+        changed.values().forEach(change -> outgoing.add(change.before()));
+        return outgoing;
+    }
+
+    /**
+     * @return definitions entering the registry: added ones and the new versions of changed ones
+     */
+    public List<T> incoming() {
+        List<T> incoming = new ArrayList<>(added.values());
+        changed.values().forEach(change -> incoming.add(change.after()));
+        return incoming;
+    }
+
+    public String summary() {
+        return "+" + added.size() + " -" + removed.size() + " ~" + changed.size();
+    }
+}
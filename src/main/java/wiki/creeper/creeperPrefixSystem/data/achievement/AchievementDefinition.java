@@ -1,5 +1,7 @@
 package wiki.creeper.creeperPrefixSystem.data.achievement;
 
+import java.util.Objects;
+
 /**
  * Describes a single achievement and its unlocking criteria.
  */
@@ -42,4 +44,17 @@ public final class AchievementDefinition {
     public boolean matchesCollectionCount(int count) {
         return type == AchievementType.COLLECTION_COUNT && count >= target;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AchievementDefinition that = (AchievementDefinition) o;
+        return target == that.target && Objects.equals(id, that.id) && Objects.equals(display, that.display) && Objects.equals(description, that.description) && type == that.type;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, display, description, type, target);
+    }
 }
@@ -2,6 +2,7 @@ package wiki.creeper.creeperPrefixSystem.data.achievement;
 
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import wiki.creeper.creeperPrefixSystem.data.RegistryDiff;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -12,19 +13,24 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Stores loaded achievement definitions and exposes lookup helpers.
+ * Stores loaded achievement definitions and exposes lookup helpers. Definitions and the per-type lists are
+ * published together as one immutable snapshot.
  */
 public final class AchievementRegistry {
 
-    private final Map<String, AchievementDefinition> definitions = new LinkedHashMap<>();
-    private final Map<AchievementType, List<AchievementDefinition>> byType = new EnumMap<>(AchievementType.class);
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyMap());
 
-    public void load(FileConfiguration configuration) {
-        definitions.clear();
-        byType.clear();
+    /**
+     * Parses the achievements and swaps them in atomically. Safe to call off the main thread.
+     *
+     * @return what changed compared to the previously loaded achievements
+     */
+    public RegistryDiff<AchievementDefinition> load(FileConfiguration configuration) {
+        Map<String, AchievementDefinition> definitions = new LinkedHashMap<>();
+        Map<AchievementType, List<AchievementDefinition>> byType = new EnumMap<>(AchievementType.class);
         ConfigurationSection root = configuration.getConfigurationSection("achievements");
         if (root == null) {
-            return;
+            return publish(definitions, byType);
         }
         for (String id : root.getKeys(false)) {
             ConfigurationSection section = root.getConfigurationSection(id);
@@ -40,17 +46,30 @@ public final class AchievementRegistry {
             byType.computeIfAbsent(type, key -> new ArrayList<>()).add(definition);
         }
         byType.values().forEach(list -> list.sort((a, b) -> Integer.compare(a.getTarget(), b.getTarget())));
+        return publish(definitions, byType);
+    }
+
+    private synchronized RegistryDiff<AchievementDefinition> publish(Map<String, AchievementDefinition> definitions,
+                                                        Map<AchievementType, List<AchievementDefinition>> byType) {
+        Snapshot previous = snapshot;
+        byType.replaceAll((type, list) -> List.copyOf(list));
+        snapshot = new Snapshot(Collections.unmodifiableMap(definitions), Collections.unmodifiableMap(byType));
+        return RegistryDiff.of(previous.definitions(), definitions);
     }
 
     public AchievementDefinition get(String id) {
-        return definitions.get(id);
+        return snapshot.definitions().get(id);
     }
 
     public Collection<AchievementDefinition> all() {
-        return Collections.unmodifiableCollection(definitions.values());
+        return snapshot.definitions().values();
     }
 
     public List<AchievementDefinition> getByType(AchievementType type) {
-        return byType.getOrDefault(type, List.of());
+        return snapshot.byType().getOrDefault(type, List.of());
+    }
+
+    private record Snapshot(Map<String, AchievementDefinition> definitions,
+                            Map<AchievementType, List<AchievementDefinition>> byType) {
     }
 }
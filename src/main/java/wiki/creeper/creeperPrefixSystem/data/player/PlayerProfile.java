@@ -0,0 +1,163 @@
+package wiki.creeper.creeperPrefixSystem.data.player;
+
+import wiki.creeper.creeperPrefixSystem.data.achievement.PlayerAchievementState;
+import wiki.creeper.creeperPrefixSystem.data.collection.PlayerCollectionState;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Single cached aggregate holding every per-player slice the services work with. A profile is created in
+ * {@link Lifecycle#LOADING}, becomes {@link Lifecycle#READY} once all slices are published together and moves
+ * to {@link Lifecycle#UNLOADING} when it leaves the cache. The generation distinguishes successive loads of
+ * the same player.
+ */
+public final class PlayerProfile {
+
+    public enum Lifecycle {
+        LOADING,
+        READY,
+        UNLOADING
+    }
+
+    private final UUID uuid;
+    private final long generation;
+    private final CompletableFuture<PlayerProfile> ready = new CompletableFuture<>();
+
+    private volatile Lifecycle lifecycle = Lifecycle.LOADING;
+    private volatile PlayerTitleState titles;
+    private volatile PlayerStatState stats;
+    private volatile PlayerProgressState progress;
+    private volatile PlayerCollectionState collection;
+    private volatile PlayerAchievementState achievements;
+    private volatile long readyAt;
+    private volatile long lastAccess;
+
+    public PlayerProfile(UUID uuid, long generation) {
+        this.uuid = uuid;
+        this.generation = generation;
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    /**
+     * Publishes all slices at once and wakes up anyone waiting for the profile. Only the first completion
+     * counts.
+     */
+    public void complete(PlayerProfileData data) {
+        install(data);
+        ready.complete(this);
+    }
+
+    /**
+     * Publishes all slices and marks a loading profile ready without waking the waiters yet, so a caller
+     * holding a lock can install the data and run {@link #complete} after releasing it.
+     *
+     * @return whether this call installed the data; {@code false} if it was installed before
+     */
+    public synchronized boolean install(PlayerProfileData data) {
+        if (readyAt != 0L || ready.isDone()) {
+            return false;
+        }
+        titles = data.titles();
+        stats = data.stats();
+        progress = data.progress();
+        collection = data.collection();
+        achievements = data.achievements();
+        readyAt = System.currentTimeMillis();
+        if (lifecycle == Lifecycle.LOADING) {
+            lifecycle = Lifecycle.READY;
+        }
+        return true;
+    }
+
+    /**
+     * Releases anyone waiting on a load that could not complete.
+     */
+    public void fail(Throwable cause) {
+        ready.completeExceptionally(cause);
+    }
+
+    public void markUnloading() {
+        lifecycle = Lifecycle.UNLOADING;
+    }
+
+    /**
+     * Blocks until the profile has been published.
+     */
+    public PlayerProfile awaitReady() {
+        return ready.join();
+    }
+
+    /**
+     * @return a future completed once the profile has been published, without blocking
+     */
+    public CompletableFuture<PlayerProfile> whenReady() {
+        return ready.copy();
+    }
+
+    public PlayerProfileData snapshot() {
+        return new PlayerProfileData(titles, stats, progress, collection, achievements);
+    }
+
+    public boolean isReady() {
+        return lifecycle == Lifecycle.READY;
+    }
+
+    /**
+     * Rough number of entries held by this profile, used to gauge cache memory.
+     */
+    public int estimatedEntries() {
+        if (readyAt == 0L) {
+            return 0;
+        }
+        return titles.getOwnedTitles().size()
+                + stats.size()
+                + progress.asMap().size()
+                + collection.size()
+                + achievements.getCompletions().size();
+    }
+
+    public UUID uuid() {
+        return uuid;
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public Lifecycle lifecycle() {
+        return lifecycle;
+    }
+
+    public long readyAt() {
+        return readyAt;
+    }
+
+    public void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    public long lastAccess() {
+        return lastAccess;
+    }
+
+    public PlayerTitleState titles() {
+        return titles;
+    }
+
+    public PlayerStatState stats() {
+        return stats;
+    }
+
+    public PlayerProgressState progress() {
+        return progress;
+    }
+
+    public PlayerCollectionState collection() {
+        return collection;
+    }
+
+    public PlayerAchievementState achievements() {
+        return achievements;
+    }
+}
@@ -0,0 +1,14 @@
+package wiki.creeper.creeperPrefixSystem.data.player;
+
+import wiki.creeper.creeperPrefixSystem.data.achievement.PlayerAchievementState;
+import wiki.creeper.creeperPrefixSystem.data.collection.PlayerCollectionState;
+
+/**
+ * Everything stored for a single player, as returned by one profile load.
+ */
+public record PlayerProfileData(PlayerTitleState titles,
+                                PlayerStatState stats,
+                                PlayerProgressState progress,
+                                PlayerCollectionState collection,
+                                PlayerAchievementState achievements) {
+}
@@ -1,53 +1,283 @@
 package wiki.creeper.creeperPrefixSystem.data.player;
 
+import wiki.creeper.creeperPrefixSystem.data.stat.StatCombiner;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatDefinition;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatIndex;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatModifier;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatRegistry;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatVector;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
- * Holds the dynamic stat values and modifiers for a player in runtime memory.
+ * Holds the dynamic stat values and modifiers for a player in runtime memory. Values are kept in primitive
+ * arrays indexed by {@link StatIndex} ordinal: the base value, the ADD, MULT and SET values of the active
+ * modifiers and the last computed value of each stat. The string-keyed methods are a thin
+ * facade over the ordinal ones.
+ * <p>
+ * The state is copy-on-write: all arrays live in an immutable {@link Snapshot} published through a volatile
+ * field. Writers are serialised and publish a new snapshot with the changed stat re-aggregated, so readers on
+ * any thread never block and never observe a half-applied change.
  */
 public final class PlayerStatState {
-    private final Map<String, Double> baseValues = new HashMap<>();
-    private final Map<String, Map<String, StatModifier>> modifiers = new HashMap<>();
+
+    private static final double[][] NO_COMPONENTS = {new double[0], new double[0], new double[0]};
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
 
     public double getBaseValue(String statId) {
-        return baseValues.getOrDefault(statId, 0.0D);
+        return baseValue(StatIndex.ordinalOf(statId));
     }
 
-    public void setBaseValue(String statId, double value) {
-        baseValues.put(statId, value);
+    public synchronized void setBaseValue(String statId, double value) {
+        int ordinal = StatIndex.intern(statId);
+        Snapshot next = snapshot.copy(ordinal);
+        next.base[ordinal] = value;
+        snapshot = next;
     }
 
     public Collection<StatModifier> getModifiers(String statId) {
-        return modifiers.getOrDefault(statId, Collections.emptyMap()).values();
+        Map<String, StatModifier> map = snapshot.modifiers(StatIndex.ordinalOf(statId));
+        return map == null ? Collections.emptyList() : map.values();
+    }
+
+    public StatModifier getModifier(String statId, String sourceId) {
+        Map<String, StatModifier> map = snapshot.modifiers(StatIndex.ordinalOf(statId));
+        return map == null ? null : map.get(sourceId);
+    }
+
+    public void forEachModifier(Consumer<StatModifier> action) {
+        for (Map<String, StatModifier> map : snapshot.modifiers) {
+            if (map != null) {
+                map.values().forEach(action);
+            }
+        }
     }
 
-    public void putModifier(StatModifier modifier) {
-        modifiers.computeIfAbsent(modifier.getStatId(), key -> new HashMap<>())
-                .put(modifier.getSourceId(), modifier);
+    public synchronized void putModifier(StatModifier modifier) {
+        int ordinal = StatIndex.intern(modifier.getStatId());
+        Snapshot next = snapshot.copy(ordinal);
+        LinkedHashMap<String, StatModifier> map = next.modifiers[ordinal] == null
+                ? new LinkedHashMap<>()
+                : new LinkedHashMap<>(next.modifiers[ordinal]);
+        // Re-inserting keeps insertion order meaningful: the most recent SET modifier wins.
+        map.remove(modifier.getSourceId());
+        map.put(modifier.getSourceId(), modifier);
+        next.setModifiers(ordinal, map);
+        snapshot = next;
     }
 
-    public boolean removeModifier(String statId, String sourceId) {
-        Map<String, StatModifier> map = modifiers.get(statId);
-        if (map == null) {
+    public synchronized boolean removeModifier(String statId, String sourceId) {
+        int ordinal = StatIndex.ordinalOf(statId);
+        Map<String, StatModifier> current = snapshot.modifiers(ordinal);
+        if (current == null || !current.containsKey(sourceId)) {
             return false;
         }
-        boolean removed = map.remove(sourceId) != null;
-        if (map.isEmpty()) {
-            modifiers.remove(statId);
+        LinkedHashMap<String, StatModifier> map = new LinkedHashMap<>(current);
+        map.remove(sourceId);
+        Snapshot next = snapshot.copy(ordinal);
+        next.setModifiers(ordinal, map.isEmpty() ? null : map);
+        snapshot = next;
+        return true;
+    }
+
+    public synchronized void clearExpiredModifiers(long currentEpoch) {
+        Snapshot next = null;
+        for (int ordinal = 0; ordinal < snapshot.modifiers.length; ordinal++) {
+            Map<String, StatModifier> current = snapshot.modifiers[ordinal];
+            if (current == null || snapshot.nextExpiry[ordinal] > currentEpoch) {
+                continue;
+            }
+            LinkedHashMap<String, StatModifier> map = new LinkedHashMap<>(current);
+            map.values().removeIf(mod -> mod.getExpireAt() != null && mod.getExpireAt().toEpochMilli() <= currentEpoch);
+            next = (next == null ? snapshot : next).copy(ordinal);
+            next.setModifiers(ordinal, map.isEmpty() ? null : map);
+        }
+        if (next != null) {
+            snapshot = next;
+        }
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        int total = 0;
+        for (int ordinal = 0; ordinal < current.base.length; ordinal++) {
+            if (current.base[ordinal] != 0.0D) {
+                total++;
+            }
+            if (current.modifiers[ordinal] != null) {
+                total += current.modifiers[ordinal].size();
+            }
+        }
+        return total;
+    }
+
+    public double baseValue(int ordinal) {
+        Snapshot current = snapshot;
+        return current.has(ordinal) ? current.base[ordinal] : 0.0D;
+    }
+
+    /**
+     * @return the earliest expiry among the stat's modifiers or {@link Long#MAX_VALUE} if none expire
+     */
+    public long nextExpiry(int ordinal) {
+        Snapshot current = snapshot;
+        return current.has(ordinal) ? current.nextExpiry[ordinal] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Resolves the final value of a stat from a single consistent snapshot. A value computed for the current
+     * snapshot and registry version is returned as is; otherwise it is computed and cached in the snapshot.
+     * Racing readers can only ever cache the same value for the same snapshot, and a concurrent write
+     * publishes a new snapshot without it, so this never takes a lock. A modifier that expired but has not
+     * been swept yet is skipped and the result is not cached. The modifiers are folded by the stat's compiled
+     * {@link StatCombiner}, so the stacking policy costs nothing per modifier here.
+     */
+    public double resolve(int ordinal, StatDefinition definition, long registryVersion) {
+        return resolve(snapshot, ordinal, definition, registryVersion);
+    }
+
+    /**
+     * Resolves every stat defined in the registry from one snapshot.
+     */
+    public StatVector resolveAll(StatRegistry registry) {
+        Snapshot current = snapshot;
+        long version = registry.version();
+        double[] values = new double[registry.ordinalLimit()];
+        for (int ordinal = 0; ordinal < values.length; ordinal++) {
+            StatDefinition definition = registry.get(ordinal);
+            values[ordinal] = definition == null ? Double.NaN : resolve(current, ordinal, definition, version);
         }
-        return removed;
+        return new StatVector(values);
     }
 
-    public void clearExpiredModifiers(long currentEpoch) {
-        Iterator<Map.Entry<String, Map<String, StatModifier>>> iterator = modifiers.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<String, Map<String, StatModifier>> entry = iterator.next();
-            entry.getValue().values().removeIf(mod -> mod.getExpireAt() != null && mod.getExpireAt().toEpochMilli() < currentEpoch);
-            if (entry.getValue().isEmpty()) {
-                iterator.remove();
+    private static double resolve(Snapshot current, int ordinal, StatDefinition definition, long registryVersion) {
+        if (!current.has(ordinal)) {
+            return definition.clamp(definition.getDefaultValue());
+        }
+        long expiry = current.nextExpiry[ordinal];
+        long now = expiry == Long.MAX_VALUE ? 0L : System.currentTimeMillis();
+        ComputedValue cached = current.computed[ordinal];
+        if (cached != null && cached.registryVersion() == registryVersion && now < expiry) {
+            return cached.value();
+        }
+        double value = current.base[ordinal];
+        if (value == 0.0D) {
+            value = definition.getDefaultValue();
+        }
+        StatCombiner combiner = definition.getCombiner();
+        if (now >= expiry) {
+            double[][] live = components(current.modifiers[ordinal], now);
+            return definition.clamp(combiner.combine(value, live[0], live[1], live[2]));
+        }
+        double[][] components = current.components[ordinal];
+        if (components == null) {
+            components = NO_COMPONENTS;
+        }
+        double computed = definition.clamp(combiner.combine(value, components[0], components[1], components[2]));
+        current.computed[ordinal] = new ComputedValue(computed, registryVersion);
+        return computed;
+    }
+
+    /**
+     * Splits the live modifiers into primitive arrays per operation, in the order {@link StatCombiner} expects.
+     */
+    private static double[][] components(Map<String, StatModifier> modifiers, long now) {
+        if (modifiers == null) {
+            return NO_COMPONENTS;
+        }
+        double[] add = new double[modifiers.size()];
+        double[] mult = new double[modifiers.size()];
+        double[] set = new double[modifiers.size()];
+        int adds = 0;
+        int mults = 0;
+        int sets = 0;
+        for (StatModifier modifier : modifiers.values()) {
+            if (modifier.getExpireAt() != null && modifier.getExpireAt().toEpochMilli() <= now) {
+                continue;
+            }
+            switch (modifier.getOperation()) {
+                case ADD -> add[adds++] = modifier.getValue();
+                case MULT -> mult[mults++] = modifier.getValue();
+                case SET -> set[sets++] = modifier.getValue();
+            }
+        }
+        return new double[][]{descending(add, adds), descending(mult, mults), Arrays.copyOf(set, sets)};
+    }
+
+    private static double[] descending(double[] values, int length) {
+        double[] sorted = Arrays.copyOf(values, length);
+        Arrays.sort(sorted);
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            double swap = sorted[i];
+            sorted[i] = sorted[j];
+            sorted[j] = swap;
+        }
+        return sorted;
+    }
+
+    private record ComputedValue(double value, long registryVersion) {
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0);
+
+        final double[] base;
+        final double[][][] components;
+        final long[] nextExpiry;
+        final Map<String, StatModifier>[] modifiers;
+        final ComputedValue[] computed;
+
+        @SuppressWarnings("unchecked")
+        private Snapshot(int length) {
+            base = new double[length];
+            components = new double[length][][];
+            nextExpiry = new long[length];
+            modifiers = new Map[length];
+            computed = new ComputedValue[length];
+            Arrays.fill(nextExpiry, Long.MAX_VALUE);
+        }
+
+        boolean has(int ordinal) {
+            return ordinal >= 0 && ordinal < base.length;
+        }
+
+        Map<String, StatModifier> modifiers(int ordinal) {
+            return has(ordinal) ? modifiers[ordinal] : null;
+        }
+
+        /**
+         * Copies this snapshot, growing it to cover {@code ordinal}, and drops the computed value of the stat
+         * about to change. Computed values of other stats stay valid.
+         */
+        Snapshot copy(int ordinal) {
+            Snapshot next = new Snapshot(Math.max(base.length, Math.max(ordinal + 1, StatIndex.size())));
+            System.arraycopy(base, 0, next.base, 0, base.length);
+            System.arraycopy(components, 0, next.components, 0, components.length);
+            System.arraycopy(nextExpiry, 0, next.nextExpiry, 0, nextExpiry.length);
+            System.arraycopy(modifiers, 0, next.modifiers, 0, modifiers.length);
+            System.arraycopy(computed, 0, next.computed, 0, computed.length);
+            next.computed[ordinal] = null;
+            return next;
+        }
+
+        /**
+         * Installs an unmodifiable copy of the stat's modifiers and splits their values per operation.
+         */
+        void setModifiers(int ordinal, LinkedHashMap<String, StatModifier> map) {
+            long expiry = Long.MAX_VALUE;
+            if (map != null) {
+                for (StatModifier modifier : map.values()) {
+                    if (modifier.getExpireAt() != null) {
+                        expiry = Math.min(expiry, modifier.getExpireAt().toEpochMilli());
+                    }
+                }
             }
+            modifiers[ordinal] = map == null ? null : Collections.unmodifiableMap(map);
+            components[ordinal] = map == null ? null : components(map, Long.MIN_VALUE);
+            nextExpiry[ordinal] = expiry;
         }
     }
 }
@@ -1,39 +1,125 @@
 package wiki.creeper.creeperPrefixSystem.data.player;
 
+import wiki.creeper.creeperPrefixSystem.data.set.SetIndex;
+import wiki.creeper.creeperPrefixSystem.data.title.TitleIndex;
+
 import java.time.Instant;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
 /**
  * Cached runtime object representing the titles a player owns, the one they currently have equipped and
- * the timestamps the titles were obtained at.
+ * the timestamps the titles were obtained at. Owned, seasonal and weekly titles are bitsets indexed by
+ * {@link TitleIndex} ordinal, so membership tests are a single bit test. Every change writes a fresh copy of
+ * the bitset to its volatile field, so the live title views can be read from worker threads.
  */
 public final class PlayerTitleState {
-    private final Set<String> ownedTitles = new HashSet<>();
-    private final Set<String> seasonalTitles = new HashSet<>();
-    private final Set<String> weeklyTitles = new HashSet<>();
+    private static final long[] NO_BITS = new long[0];
+
+    private volatile long[] ownedTitles = NO_BITS;
+    private volatile long[] seasonalTitles = NO_BITS;
+    private volatile long[] weeklyTitles = NO_BITS;
+    private final Set<String> ownedView = new TitleSetView(Kind.OWNED);
+    private final Set<String> seasonalView = new TitleSetView(Kind.SEASONAL);
+    private final Set<String> weeklyView = new TitleSetView(Kind.WEEKLY);
+    private final Set<String> activeSets = new HashSet<>();
+    private final Map<String, Integer> setMemberCounts = new HashMap<>();
+    private SetIndex setIndex;
     private String equippedTitle;
     private Instant lastSynced;
 
     public void addOwnedTitle(String titleId) {
-        ownedTitles.add(titleId);
+        int ordinal = TitleIndex.intern(titleId);
+        if (!test(ownedTitles, ordinal)) {
+            ownedTitles = set(ownedTitles, ordinal);
+            countSetMembers(titleId, 1);
+        }
     }
 
     public boolean removeOwnedTitle(String titleId) {
-        seasonalTitles.remove(titleId);
-        weeklyTitles.remove(titleId);
-        return ownedTitles.remove(titleId);
+        int ordinal = TitleIndex.ordinalOf(titleId);
+        seasonalTitles = clear(seasonalTitles, ordinal);
+        weeklyTitles = clear(weeklyTitles, ordinal);
+        long[] owned = ownedTitles;
+        long[] next = clear(owned, ordinal);
+        if (next == owned) {
+            return false;
+        }
+        ownedTitles = next;
+        countSetMembers(titleId, -1);
+        return true;
+    }
+
+    /**
+     * Switches the member counters to the given set index, recounting them from the owned titles if the
+     * index changed since they were last built.
+     *
+     * @return whether the counters were rebuilt
+     */
+    public boolean bindSetIndex(SetIndex index) {
+        if (setIndex == index) {
+            return false;
+        }
+        setIndex = index;
+        setMemberCounts.clear();
+        for (String titleId : ownedView) {
+            countSetMembers(titleId, 1);
+        }
+        return true;
+    }
+
+    private void countSetMembers(String titleId, int delta) {
+        if (setIndex == null) {
+            return;
+        }
+        for (String setId : setIndex.setsContaining(titleId)) {
+            setMemberCounts.merge(setId, delta, (current, change) -> current + change == 0 ? null : current + change);
+        }
+    }
+
+    /**
+     * @return whether the player owns every member of the set according to the bound index
+     */
+    public boolean isSetComplete(String setId) {
+        if (setIndex == null) {
+            return false;
+        }
+        int required = setIndex.required(setId);
+        return required == 0 || (required > 0 && setMemberCounts.getOrDefault(setId, 0) == required);
+    }
+
+    /**
+     * @return ids of sets the player owns at least one member of
+     */
+    public Set<String> getStartedSets() {
+        return Collections.unmodifiableSet(setMemberCounts.keySet());
     }
 
     public boolean isOwned(String titleId) {
-        return ownedTitles.contains(titleId);
+        return test(ownedTitles, TitleIndex.ordinalOf(titleId));
     }
 
+    /**
+     * Ordinal-based ownership test that skips the id lookup, for callers holding a title definition.
+     */
+    public boolean isOwned(int ordinal) {
+        return test(ownedTitles, ordinal);
+    }
+
+    /**
+     * @return unmodifiable live view of the owned title ids
+     */
     public Set<String> getOwnedTitles() {
-        return Collections.unmodifiableSet(ownedTitles);
+        return ownedView;
     }
 
     public Optional<String> getEquippedTitle() {
@@ -45,19 +131,34 @@ public final class PlayerTitleState {
     }
 
     public Set<String> getSeasonalTitles() {
-        return Collections.unmodifiableSet(seasonalTitles);
+        return seasonalView;
     }
 
     public void markSeasonal(String titleId) {
-        seasonalTitles.add(titleId);
+        seasonalTitles = set(seasonalTitles, TitleIndex.intern(titleId));
     }
 
     public void markWeekly(String titleId) {
-        weeklyTitles.add(titleId);
+        weeklyTitles = set(weeklyTitles, TitleIndex.intern(titleId));
     }
 
     public Set<String> getWeeklyTitles() {
-        return Collections.unmodifiableSet(weeklyTitles);
+        return weeklyView;
+    }
+
+    /**
+     * Sets whose bonuses are currently applied to the player. Derived at runtime and never persisted.
+     */
+    public Set<String> getActiveSets() {
+        return Collections.unmodifiableSet(activeSets);
+    }
+
+    public void activateSet(String setId) {
+        activeSets.add(setId);
+    }
+
+    public void deactivateSet(String setId) {
+        activeSets.remove(setId);
     }
 
     public Instant getLastSynced() {
@@ -68,16 +169,123 @@ public final class PlayerTitleState {
         this.lastSynced = lastSynced;
     }
 
+    private static boolean test(long[] bits, int ordinal) {
+        int word = ordinal >>> 6;
+        return ordinal >= 0 && word < bits.length && (bits[word] & (1L << ordinal)) != 0L;
+    }
+
+    /**
+     * @return a copy of {@code bits} with the bit set, grown if the ordinal lies beyond the current words
+     */
+    private static long[] set(long[] bits, int ordinal) {
+        int word = ordinal >>> 6;
+        long[] target = Arrays.copyOf(bits, word < bits.length ? bits.length : Math.max(word + 1, TitleIndex.size() + 63 >>> 6));
+        target[word] |= 1L << ordinal;
+        return target;
+    }
+
+    /**
+     * @return a copy of {@code bits} with the bit cleared, or {@code bits} itself if it was not set
+     */
+    private static long[] clear(long[] bits, int ordinal) {
+        if (!test(bits, ordinal)) {
+            return bits;
+        }
+        long[] target = bits.clone();
+        target[ordinal >>> 6] &= ~(1L << ordinal);
+        return target;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         PlayerTitleState that = (PlayerTitleState) o;
-        return Objects.equals(ownedTitles, that.ownedTitles) && Objects.equals(seasonalTitles, that.seasonalTitles) && Objects.equals(weeklyTitles, that.weeklyTitles) && Objects.equals(equippedTitle, that.equippedTitle) && Objects.equals(lastSynced, that.lastSynced);
+        return Objects.equals(ownedView, that.ownedView) && Objects.equals(seasonalView, that.seasonalView) && Objects.equals(weeklyView, that.weeklyView) && Objects.equals(equippedTitle, that.equippedTitle) && Objects.equals(lastSynced, that.lastSynced);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(ownedTitles, seasonalTitles, weeklyTitles, equippedTitle, lastSynced);
+        return Objects.hash(ownedView, seasonalView, weeklyView, equippedTitle, lastSynced);
+    }
+
+    private enum Kind {
+        OWNED,
+        SEASONAL,
+        WEEKLY
+    }
+
+    /**
+     * Read-only set of title ids backed by one of the bitsets.
+     */
+    private final class TitleSetView extends AbstractSet<String> {
+
+        private final Kind kind;
+
+        private TitleSetView(Kind kind) {
+            this.kind = kind;
+        }
+
+        private long[] bits() {
+            return switch (kind) {
+                case OWNED -> ownedTitles;
+                case SEASONAL -> seasonalTitles;
+                case WEEKLY -> weeklyTitles;
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String titleId && test(bits(), TitleIndex.ordinalOf(titleId));
+        }
+
+        @Override
+        public int size() {
+            int count = 0;
+            for (long word : bits()) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            long[] bits = bits();
+            return new Iterator<>() {
+                private int next = nextSetBit(bits, 0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public String next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    String id = TitleIndex.idOf(next);
+                    next = nextSetBit(bits, next + 1);
+                    return id;
+                }
+            };
+        }
+    }
+
+    private static int nextSetBit(long[] bits, int from) {
+        int word = from >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long current = bits[word] & (-1L << from);
+        while (true) {
+            if (current != 0L) {
+                return (word << 6) + Long.numberOfTrailingZeros(current);
+            }
+            if (++word >= bits.length) {
+                return -1;
+            }
+            current = bits[word];
+        }
     }
 }
@@ -0,0 +1,58 @@
+package wiki.creeper.creeperPrefixSystem.data.set;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable inverted index from a title to the sets that contain it, built whenever {@code sets.yml} is
+ * loaded. Together with the per-player member counters in {@code PlayerTitleState} it lets a grant or revoke
+ * re-evaluate only the sets the title belongs to.
+ */
+public final class SetIndex {
+
+    public static final SetIndex EMPTY = new SetIndex(Collections.emptyList());
+
+    private final Map<String, List<String>> setsByTitle = new HashMap<>();
+    private final Map<String, Integer> required = new HashMap<>();
+    private final List<String> unconditional = new ArrayList<>();
+
+    public SetIndex(Collection<SetDefinition> sets) {
+        for (SetDefinition definition : sets) {
+            // Members are de-duplicated so a counter reaching the required size means the set is complete.
+            LinkedHashSet<String> members = new LinkedHashSet<>(definition.getMembers());
+            required.put(definition.getId(), members.size());
+            if (members.isEmpty()) {
+                unconditional.add(definition.getId());
+            }
+            for (String titleId : members) {
+                setsByTitle.computeIfAbsent(titleId, key -> new ArrayList<>()).add(definition.getId());
+            }
+        }
+    }
+
+    /**
+     * @return ids of the sets listing the title as a member
+     */
+    public List<String> setsContaining(String titleId) {
+        return setsByTitle.getOrDefault(titleId, Collections.emptyList());
+    }
+
+    /**
+     * @return number of distinct members the set requires, or {@code -1} if the set is unknown
+     */
+    public int required(String setId) {
+        return required.getOrDefault(setId, -1);
+    }
+
+    /**
+     * @return ids of sets without members, which are complete for every player
+     */
+    public List<String> unconditionalSets() {
+        return Collections.unmodifiableList(unconditional);
+    }
+}
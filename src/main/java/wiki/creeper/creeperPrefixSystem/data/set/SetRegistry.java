@@ -3,6 +3,7 @@ package wiki.creeper.creeperPrefixSystem.data.set;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.Plugin;
+import wiki.creeper.creeperPrefixSystem.data.RegistryDiff;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatModifier;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleEffect;
 
@@ -10,23 +11,29 @@ import java.util.*;
 import java.util.logging.Level;
 
 /**
- * Loader for set definitions.
+ * Loader for set definitions. The sets and their title index are published together as one immutable
+ * snapshot, so a reload never exposes a half-filled registry.
  */
 public final class SetRegistry {
 
     private final Plugin plugin;
-    private final Map<String, SetDefinition> sets = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), SetIndex.EMPTY);
 
     public SetRegistry(Plugin plugin) {
         this.plugin = plugin;
     }
 
-    public void load(FileConfiguration configuration) {
-        sets.clear();
+    /**
+     * Parses the sets and swaps them in atomically. Safe to call off the main thread.
+     *
+     * @return what changed compared to the previously loaded sets
+     */
+    public RegistryDiff<SetDefinition> load(FileConfiguration configuration) {
+        Map<String, SetDefinition> sets = new LinkedHashMap<>();
         ConfigurationSection root = configuration.getConfigurationSection("sets");
         if (root == null) {
             plugin.getLogger().warning("No sets section defined in sets.yml");
-            return;
+            return publish(sets);
         }
 
         for (String id : root.getKeys(false)) {
@@ -53,13 +60,33 @@ public final class SetRegistry {
             }
         }
         plugin.getLogger().info("Loaded " + sets.size() + " sets");
+        return publish(sets);
+    }
+
+    private synchronized RegistryDiff<SetDefinition> publish(Map<String, SetDefinition> loaded) {
+        Snapshot previous = snapshot;
+        RegistryDiff<SetDefinition> diff = RegistryDiff.of(previous.sets(), loaded);
+        // An unchanged index keeps the players' member counters valid, see PlayerTitleState#bindSetIndex.
+        SetIndex index = diff.isEmpty() ? previous.index() : new SetIndex(loaded.values());
+        snapshot = new Snapshot(Collections.unmodifiableMap(loaded), index);
+        return diff;
+    }
+
+    /**
+     * @return the title-to-set index of the currently loaded sets; replaced on every load
+     */
+    public SetIndex index() {
+        return snapshot.index();
     }
 
     public Collection<SetDefinition> all() {
-        return Collections.unmodifiableCollection(sets.values());
+        return snapshot.sets().values();
     }
 
     public SetDefinition get(String id) {
-        return sets.get(id);
+        return snapshot.sets().get(id);
+    }
+
+    private record Snapshot(Map<String, SetDefinition> sets, SetIndex index) {
     }
 }
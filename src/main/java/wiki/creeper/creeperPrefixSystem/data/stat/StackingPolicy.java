@@ -0,0 +1,92 @@
+package wiki.creeper.creeperPrefixSystem.data.stat;
+
+/**
+ * How the modifiers of one stat stack with each other, configured per stat in {@code stats.yml}.
+ */
+public enum StackingPolicy {
+
+    /**
+     * ADD values are summed, MULT factors multiplied and the most recent SET wins.
+     */
+    SUM,
+    /**
+     * Only the highest modifier of each operation applies.
+     */
+    HIGHEST,
+    /**
+     * Like {@link #SUM}, but the n-th strongest ADD or MULT modifier only counts {@code factor^n} of its value.
+     */
+    DIMINISHING,
+    /**
+     * Like {@link #SUM}, but the summed ADD bonus is capped.
+     */
+    CAPPED;
+
+    /**
+     * Compiles the policy into a combiner specialised for the given parameters.
+     */
+    public StatCombiner compile(double cap, double factor) {
+        return switch (this) {
+            case SUM -> (base, add, mult, set) -> set.length > 0
+                    ? set[set.length - 1]
+                    : (base + sum(add)) * product(mult);
+            case HIGHEST -> (base, add, mult, set) -> set.length > 0
+                    ? max(set)
+                    : (base + first(add)) * (1.0D + first(mult));
+            case DIMINISHING -> (base, add, mult, set) -> set.length > 0
+                    ? set[set.length - 1]
+                    : (base + diminishingSum(add, factor)) * diminishingProduct(mult, factor);
+            case CAPPED -> (base, add, mult, set) -> set.length > 0
+                    ? set[set.length - 1]
+                    : (base + Math.min(sum(add), cap)) * product(mult);
+        };
+    }
+
+    private static double sum(double[] values) {
+        double total = 0.0D;
+        for (double value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    private static double product(double[] values) {
+        double total = 1.0D;
+        for (double value : values) {
+            total *= 1.0D + value;
+        }
+        return total;
+    }
+
+    private static double first(double[] values) {
+        return values.length > 0 ? values[0] : 0.0D;
+    }
+
+    private static double max(double[] values) {
+        double highest = Double.NEGATIVE_INFINITY;
+        for (double value : values) {
+            highest = Math.max(highest, value);
+        }
+        return highest;
+    }
+
+    private static double diminishingSum(double[] values, double factor) {
+        double total = 0.0D;
+        double weight = 1.0D;
+        for (double value : values) {
+            total += value * weight;
+            weight *= factor;
+        }
+        return total;
+    }
+
+    private static double diminishingProduct(double[] values, double factor) {
+        double total = 1.0D;
+        double weight = 1.0D;
+        for (double value : values) {
+            total *= 1.0D + value * weight;
+            weight *= factor;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,17 @@
+package wiki.creeper.creeperPrefixSystem.data.stat;
+
+/**
+ * Folds a stat's base value and the values of its active modifiers into the final value. Combiners are
+ * compiled once per stat from its {@link StackingPolicy} when the registry loads.
+ */
+@FunctionalInterface
+public interface StatCombiner {
+
+    /**
+     * @param base the base value, already defaulted
+     * @param add  values of the ADD modifiers, sorted in descending order
+     * @param mult values of the MULT modifiers, sorted in descending order
+     * @param set  values of the SET modifiers in insertion order, the most recent last
+     */
+    double combine(double base, double[] add, double[] mult, double[] set);
+}
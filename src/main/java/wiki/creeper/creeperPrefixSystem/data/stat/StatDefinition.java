@@ -7,20 +7,39 @@ import java.util.Objects;
  */
 public final class StatDefinition {
 
+    /**
+     * Diminishing factor used when a definition does not set one, for YAML and code-built definitions alike.
+     */
+    public static final double DEFAULT_DIMINISHING_FACTOR = 0.5D;
+
     private final String id;
     private final String displayName;
     private final double min;
     private final double max;
     private final double defaultValue;
     private final StatModifier.Operation stacking;
+    private final StackingPolicy stackingPolicy;
+    private final double stackingCap;
+    private final double diminishingFactor;
+    private final StatCombiner combiner;
 
     public StatDefinition(String id, String displayName, double min, double max, double defaultValue, StatModifier.Operation stacking) {
+        this(id, displayName, min, max, defaultValue, stacking, StackingPolicy.SUM, Double.POSITIVE_INFINITY, DEFAULT_DIMINISHING_FACTOR);
+    }
+
+    public StatDefinition(String id, String displayName, double min, double max, double defaultValue,
+                          StatModifier.Operation stacking, StackingPolicy stackingPolicy,
+                          double stackingCap, double diminishingFactor) {
         this.id = id;
         this.displayName = displayName;
         this.min = min;
         this.max = max;
         this.defaultValue = defaultValue;
         this.stacking = stacking;
+        this.stackingPolicy = stackingPolicy;
+        this.stackingCap = stackingCap;
+        this.diminishingFactor = diminishingFactor;
+        this.combiner = stackingPolicy.compile(stackingCap, diminishingFactor);
     }
 
     public String getId() {
@@ -47,6 +66,25 @@ public final class StatDefinition {
         return stacking;
     }
 
+    public StackingPolicy getStackingPolicy() {
+        return stackingPolicy;
+    }
+
+    public double getStackingCap() {
+        return stackingCap;
+    }
+
+    public double getDiminishingFactor() {
+        return diminishingFactor;
+    }
+
+    /**
+     * @return the combiner compiled from the stacking policy when this definition was loaded
+     */
+    public StatCombiner getCombiner() {
+        return combiner;
+    }
+
     public double clamp(double value) {
         if (value < min) {
             return min;
@@ -62,11 +100,11 @@ public final class StatDefinition {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         StatDefinition that = (StatDefinition) o;
-        return Double.compare(that.min, min) == 0 && Double.compare(that.max, max) == 0 && Double.compare(that.defaultValue, defaultValue) == 0 && Objects.equals(id, that.id) && Objects.equals(displayName, that.displayName) && stacking == that.stacking;
+        return Double.compare(that.min, min) == 0 && Double.compare(that.max, max) == 0 && Double.compare(that.defaultValue, defaultValue) == 0 && Objects.equals(id, that.id) && Objects.equals(displayName, that.displayName) && stacking == that.stacking && stackingPolicy == that.stackingPolicy && Double.compare(that.stackingCap, stackingCap) == 0 && Double.compare(that.diminishingFactor, diminishingFactor) == 0;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, displayName, min, max, defaultValue, stacking);
+        return Objects.hash(id, displayName, min, max, defaultValue, stacking, stackingPolicy, stackingCap, diminishingFactor);
     }
 }
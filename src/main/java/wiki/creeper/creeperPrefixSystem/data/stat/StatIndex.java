@@ -0,0 +1,54 @@
+package wiki.creeper.creeperPrefixSystem.data.stat;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns stat ids to dense int ordinals shared by the registry and every {@code PlayerStatState}. The index
+ * only ever grows, so an ordinal stays valid across {@code stats.yml} reloads and per-player arrays never
+ * need to be remapped, only extended.
+ */
+public final class StatIndex {
+
+    private static final Map<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+    private static volatile String[] ids = new String[0];
+
+    private StatIndex() {
+    }
+
+    /**
+     * @return the ordinal of the stat, assigning the next free one if the id has not been seen yet
+     */
+    public static int intern(String statId) {
+        Integer ordinal = ORDINALS.get(statId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        synchronized (StatIndex.class) {
+            return ORDINALS.computeIfAbsent(statId, key -> {
+                String[] grown = Arrays.copyOf(ids, ids.length + 1);
+                grown[grown.length - 1] = key;
+                ids = grown;
+                return grown.length - 1;
+            });
+        }
+    }
+
+    /**
+     * @return the ordinal of the stat or {@code -1} if it was never interned
+     */
+    public static int ordinalOf(String statId) {
+        Integer ordinal = ORDINALS.get(statId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public static String idOf(int ordinal) {
+        String[] current = ids;
+        return ordinal >= 0 && ordinal < current.length ? current[ordinal] : null;
+    }
+
+    public static int size() {
+        return ids.length;
+    }
+}
@@ -3,28 +3,36 @@ package wiki.creeper.creeperPrefixSystem.data.stat;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.Plugin;
+import wiki.creeper.creeperPrefixSystem.data.RegistryDiff;
 
 import java.util.*;
 import java.util.logging.Level;
 
 /**
- * Loads stat definitions from YAML and exposes lookups for runtime calculations.
+ * Loads stat definitions from YAML and exposes lookups for runtime calculations. Every loaded id is
+ * interned in {@link StatIndex} so definitions can also be resolved by ordinal.
+ * The id map, the ordinal table and the version are published together as one immutable snapshot.
  */
 public final class StatRegistry {
 
     private final Plugin plugin;
-    private final Map<String, StatDefinition> stats = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), new StatDefinition[0], 0L);
 
     public StatRegistry(Plugin plugin) {
         this.plugin = plugin;
     }
 
-    public void load(FileConfiguration configuration) {
-        stats.clear();
+    /**
+     * Parses the stats and swaps them in atomically. Safe to call off the main thread.
+     *
+     * @return what changed compared to the previously loaded stats
+     */
+    public RegistryDiff<StatDefinition> load(FileConfiguration configuration) {
+        Map<String, StatDefinition> stats = new LinkedHashMap<>();
         ConfigurationSection root = configuration.getConfigurationSection("stats");
         if (root == null) {
             plugin.getLogger().warning("No stats section defined in stats.yml");
-            return;
+            return publish(stats);
         }
         for (String id : root.getKeys(false)) {
             ConfigurationSection section = root.getConfigurationSection(id);
@@ -37,20 +45,63 @@ public final class StatRegistry {
                 double max = section.getDouble("max", 0.0D);
                 double def = section.getDouble("default", 0.0D);
                 StatModifier.Operation stacking = StatModifier.Operation.valueOf(section.getString("stacking", "ADD").toUpperCase(Locale.ROOT));
-                StatDefinition definition = new StatDefinition(id, display, min, max, def, stacking);
+                StackingPolicy policy = StackingPolicy.valueOf(section.getString("stacking-policy", "SUM").toUpperCase(Locale.ROOT));
+                double cap = section.getDouble("stacking-cap", Double.POSITIVE_INFINITY);
+                double factor = section.getDouble("diminishing-factor", StatDefinition.DEFAULT_DIMINISHING_FACTOR);
+                StatDefinition definition = new StatDefinition(id, display, min, max, def, stacking, policy, cap, factor);
                 stats.put(id, definition);
             } catch (Exception ex) {
                 plugin.getLogger().log(Level.SEVERE, "Failed to parse stat " + id, ex);
             }
         }
         plugin.getLogger().info("Loaded " + stats.size() + " stats");
+        return publish(stats);
+    }
+
+    private synchronized RegistryDiff<StatDefinition> publish(Map<String, StatDefinition> loaded) {
+        StatDefinition[] indexed = new StatDefinition[StatIndex.size() + loaded.size()];
+        for (StatDefinition definition : loaded.values()) {
+            int ordinal = StatIndex.intern(definition.getId());
+            if (ordinal >= indexed.length) {
+                indexed = Arrays.copyOf(indexed, ordinal + 1);
+            }
+            indexed[ordinal] = definition;
+        }
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(Collections.unmodifiableMap(loaded), indexed, previous.version() + 1);
+        return RegistryDiff.of(previous.stats(), loaded);
+    }
+
+    /**
+     * @return counter bumped on every load, used to invalidate values computed from older definitions
+     */
+    public long version() {
+        return snapshot.version();
     }
 
     public StatDefinition get(String id) {
-        return stats.get(id);
+        return snapshot.stats().get(id);
+    }
+
+    /**
+     * Ordinal-based lookup that avoids hashing the stat id on hot read paths.
+     */
+    public StatDefinition get(int ordinal) {
+        StatDefinition[] current = snapshot.byOrdinal();
+        return ordinal >= 0 && ordinal < current.length ? current[ordinal] : null;
+    }
+
+    /**
+     * @return upper bound (exclusive) of the ordinals {@link #get(int)} can resolve
+     */
+    public int ordinalLimit() {
+        return snapshot.byOrdinal().length;
     }
 
     public Collection<StatDefinition> all() {
-        return Collections.unmodifiableCollection(stats.values());
+        return snapshot.stats().values();
+    }
+
+    private record Snapshot(Map<String, StatDefinition> stats, StatDefinition[] byOrdinal, long version) {
     }
 }
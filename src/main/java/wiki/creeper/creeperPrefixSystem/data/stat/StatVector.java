@@ -0,0 +1,62 @@
+package wiki.creeper.creeperPrefixSystem.data.stat;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Immutable computed values of every defined stat of one player, taken from a single consistent state.
+ * Values are stored by {@link StatIndex} ordinal, so a lookup is one array access.
+ */
+public final class StatVector {
+
+    private final double[] values;
+
+    /**
+     * @param values computed values by ordinal, {@link Double#NaN} where no stat is defined; not copied
+     */
+    public StatVector(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * @return the computed value or {@code 0} if the stat is not defined
+     */
+    public double get(String statId) {
+        int ordinal = StatIndex.ordinalOf(statId);
+        if (ordinal < 0 || ordinal >= values.length || Double.isNaN(values[ordinal])) {
+            return 0.0D;
+        }
+        return values[ordinal];
+    }
+
+    public boolean has(String statId) {
+        int ordinal = StatIndex.ordinalOf(statId);
+        return ordinal >= 0 && ordinal < values.length && !Double.isNaN(values[ordinal]);
+    }
+
+    public void forEach(ObjDoubleConsumer<String> action) {
+        for (int ordinal = 0; ordinal < values.length; ordinal++) {
+            if (!Double.isNaN(values[ordinal])) {
+                action.accept(StatIndex.idOf(ordinal), values[ordinal]);
+            }
+        }
+    }
+
+    public int size() {
+        int count = 0;
+        for (double value : values) {
+            if (!Double.isNaN(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public Map<String, Double> asMap() {
+        Map<String, Double> map = new LinkedHashMap<>();
+        forEach(map::put);
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -17,6 +17,7 @@ public final class TitleDefinition {
     private final TitleSkin skin;
     private final boolean seasonal;
     private final boolean weeklyExclusive;
+    private final int ordinal;
 
     public TitleDefinition(String id,
                            String display,
@@ -36,12 +37,20 @@ public final class TitleDefinition {
         this.skin = skin;
         this.seasonal = seasonal;
         this.weeklyExclusive = weeklyExclusive;
+        this.ordinal = TitleIndex.intern(id);
     }
 
     public String getId() {
         return id;
     }
 
+    /**
+     * @return the {@link TitleIndex} ordinal of this title
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
     public String getDisplay() {
         return display;
     }
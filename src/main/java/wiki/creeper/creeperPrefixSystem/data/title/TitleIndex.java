@@ -0,0 +1,54 @@
+package wiki.creeper.creeperPrefixSystem.data.title;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns title ids to dense int ordinals used as bit positions in {@code PlayerTitleState}. The index only
+ * ever grows, so an ordinal stays valid across {@code titles.yml} reloads and ownership bitsets never need
+ * to be remapped, only extended.
+ */
+public final class TitleIndex {
+
+    private static final Map<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+    private static volatile String[] ids = new String[0];
+
+    private TitleIndex() {
+    }
+
+    /**
+     * @return the ordinal of the title, assigning the next free one if the id has not been seen yet
+     */
+    public static int intern(String titleId) {
+        Integer ordinal = ORDINALS.get(titleId);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        synchronized (TitleIndex.class) {
+            return ORDINALS.computeIfAbsent(titleId, key -> {
+                String[] grown = Arrays.copyOf(ids, ids.length + 1);
+                grown[grown.length - 1] = key;
+                ids = grown;
+                return grown.length - 1;
+            });
+        }
+    }
+
+    /**
+     * @return the ordinal of the title or {@code -1} if it was never interned
+     */
+    public static int ordinalOf(String titleId) {
+        Integer ordinal = ORDINALS.get(titleId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public static String idOf(int ordinal) {
+        String[] current = ids;
+        return ordinal >= 0 && ordinal < current.length ? current[ordinal] : null;
+    }
+
+    public static int size() {
+        return ids.length;
+    }
+}
@@ -5,29 +5,36 @@ import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.plugin.Plugin;
+import wiki.creeper.creeperPrefixSystem.data.RegistryDiff;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatModifier;
 
 import java.util.*;
 import java.util.logging.Level;
 
 /**
- * Loads and caches {@link TitleDefinition} instances from YAML configuration.
+ * Loads and caches {@link TitleDefinition} instances from YAML configuration. Each load parses into a fresh
+ * map and publishes it with a single volatile write, so readers never observe a partially loaded registry.
  */
 public final class TitleRegistry {
 
     private final Plugin plugin;
-    private final Map<String, TitleDefinition> titles = new HashMap<>();
+    private volatile Map<String, TitleDefinition> titles = Collections.emptyMap();
 
     public TitleRegistry(Plugin plugin) {
         this.plugin = plugin;
     }
 
-    public void load(FileConfiguration configuration) {
-        titles.clear();
+    /**
+     * Parses the titles and swaps them in atomically. Safe to call off the main thread.
+     *
+     * @return what changed compared to the previously loaded titles
+     */
+    public RegistryDiff<TitleDefinition> load(FileConfiguration configuration) {
+        Map<String, TitleDefinition> titles = new LinkedHashMap<>();
         ConfigurationSection root = configuration.getConfigurationSection("titles");
         if (root == null) {
             plugin.getLogger().warning("No titles section defined in titles.yml");
-            return;
+            return publish(titles);
         }
 
         for (String id : root.getKeys(false)) {
@@ -43,6 +50,13 @@ public final class TitleRegistry {
             }
         }
         plugin.getLogger().info("Loaded " + titles.size() + " titles");
+        return publish(titles);
+    }
+
+    private synchronized RegistryDiff<TitleDefinition> publish(Map<String, TitleDefinition> loaded) {
+        Map<String, TitleDefinition> previous = titles;
+        titles = Collections.unmodifiableMap(loaded);
+        return RegistryDiff.of(previous, loaded);
     }
 
     private TitleDefinition parseTitle(String id, ConfigurationSection section) {
@@ -0,0 +1,49 @@
+package wiki.creeper.creeperPrefixSystem.event;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatModifier;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Fired once per player after one or more of their temporary stat modifiers expired and were removed.
+ */
+public final class StatModifierExpireEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final UUID playerId;
+    private final List<StatModifier> modifiers;
+
+    public StatModifierExpireEvent(UUID playerId, List<StatModifier> modifiers, boolean async) {
+        super(async);
+        this.playerId = playerId;
+        this.modifiers = List.copyOf(modifiers);
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public List<StatModifier> getModifiers() {
+        return modifiers;
+    }
+
+    public Optional<Player> getPlayer() {
+        return Optional.ofNullable(Bukkit.getPlayer(playerId));
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
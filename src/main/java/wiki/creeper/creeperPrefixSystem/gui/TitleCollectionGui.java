@@ -162,7 +162,7 @@ public final class TitleCollectionGui implements Listener {
         if (index >= 0 && index < currentView.size()) {
             TitleDefinition definition = currentView.get(index);
             UUID uuid = player.getUniqueId();
-            if (titleService.getOwnedTitles(uuid).contains(definition.getId())) {
+            if (titleService.isOwned(uuid, definition)) {
                 if (titleService.equipTitle(uuid, definition.getId())) {
                     player.sendMessage("§a칭호가 장착되었습니다: " + definition.getDisplay());
                     refresh();
@@ -187,7 +187,7 @@ public final class TitleCollectionGui implements Listener {
         if (typeFilter != null && !typeFilter.equalsIgnoreCase(definition.getType())) {
             return false;
         }
-        if (ownedOnly && !titleService.getOwnedTitles(player.getUniqueId()).contains(definition.getId())) {
+        if (ownedOnly && !titleService.isOwned(player.getUniqueId(), definition)) {
             return false;
         }
         return matchesNameFilter(definition);
@@ -248,7 +248,7 @@ public final class TitleCollectionGui implements Listener {
     }
 
     private ItemStack buildIcon(UUID uuid, TitleDefinition definition) {
-        boolean owned = titleService.getOwnedTitles(uuid).contains(definition.getId());
+        boolean owned = titleService.isOwned(uuid, definition);
         boolean equipped = titleService.getEquippedTitle(uuid).map(definition.getId()::equals).orElse(false);
         ItemStack stack;
         if (!owned) {
@@ -1,56 +1,39 @@
 package wiki.creeper.creeperPrefixSystem.listener;
 
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
-import wiki.creeper.creeperPrefixSystem.service.AchievementService;
-import wiki.creeper.creeperPrefixSystem.service.CollectionService;
-import wiki.creeper.creeperPrefixSystem.service.RequirementService;
-import wiki.creeper.creeperPrefixSystem.service.StatService;
-import wiki.creeper.creeperPrefixSystem.service.TitleService;
-
-import java.util.UUID;
+import wiki.creeper.creeperPrefixSystem.service.PlayerProfileService;
 
 /**
  * Handles loading and unloading of player data as they connect and disconnect from the server.
  */
 public final class PlayerConnectionListener implements Listener {
-    private final TitleService titleService;
-    private final StatService statService;
-    private final RequirementService requirementService;
-    private final CollectionService collectionService;
-    private final AchievementService achievementService;
+    private final PlayerProfileService profileService;
+
+    public PlayerConnectionListener(PlayerProfileService profileService) {
+        this.profileService = profileService;
+    }
 
-    public PlayerConnectionListener(TitleService titleService,
-                                    StatService statService,
-                                    RequirementService requirementService,
-                                    CollectionService collectionService,
-                                    AchievementService achievementService) {
-        this.titleService = titleService;
-        this.statService = statService;
-        this.requirementService = requirementService;
-        this.collectionService = collectionService;
-        this.achievementService = achievementService;
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void handlePreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            profileService.discardPrefetch(event.getUniqueId());
+            return;
+        }
+        profileService.prefetch(event.getUniqueId());
     }
 
     @EventHandler
     public void handleJoin(PlayerJoinEvent event) {
-        UUID uuid = event.getPlayer().getUniqueId();
-        statService.load(uuid);
-        titleService.load(uuid);
-        requirementService.load(uuid);
-        collectionService.load(uuid);
-        achievementService.load(uuid);
+        profileService.load(event.getPlayer().getUniqueId());
     }
 
     @EventHandler
     public void handleQuit(PlayerQuitEvent event) {
-        UUID uuid = event.getPlayer().getUniqueId();
-        statService.unload(uuid);
-        titleService.unload(uuid);
-        requirementService.unload(uuid);
-        collectionService.unload(uuid);
-        achievementService.unload(uuid);
+        profileService.unload(event.getPlayer().getUniqueId());
     }
 }
@@ -7,6 +7,7 @@ import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 import redis.clients.jedis.JedisPubSub;
+import wiki.creeper.creeperPrefixSystem.config.ExecutorMode;
 import wiki.creeper.creeperPrefixSystem.config.RedisConfig;
 
 import java.util.Map;
@@ -14,6 +15,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -25,15 +27,26 @@ public final class RedisBridge implements AutoCloseable {
     private final Logger logger;
     private final RedisConfig config;
     private JedisPool pool;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "TitlePlus-RedisSubscriber"));
+    private final ExecutorService executor;
+    // Publishes get their own thread: the subscriber thread is blocked in subscribe() for the bridge's lifetime.
+    private final ExecutorService publisher;
     private Future<?> subscriberTask;
     private final Map<String, RedisMessageListener> listeners = new ConcurrentHashMap<>();
     private final Map<String, StructuredRedisListener> structuredListeners = new ConcurrentHashMap<>();
     private static final Gson GSON = new Gson();
 
     public RedisBridge(Logger logger, RedisConfig config) {
+        this(logger, config, ExecutorMode.PLATFORM);
+    }
+
+    /**
+     * @param mode whether the subscriber and publisher threads are platform or virtual threads
+     */
+    public RedisBridge(Logger logger, RedisConfig config, ExecutorMode mode) {
         this.logger = logger;
         this.config = config;
+        this.executor = Executors.newSingleThreadExecutor(mode.threadFactory("TitlePlus-RedisSubscriber"));
+        this.publisher = Executors.newSingleThreadExecutor(mode.threadFactory("TitlePlus-RedisPublisher"));
     }
 
     public void connect() {
@@ -93,7 +106,7 @@ public final class RedisBridge implements AutoCloseable {
         if (!config.enabled() || pool == null) {
             return;
         }
-        executor.execute(() -> {
+        publisher.execute(() -> {
             try (Jedis jedis = pool.getResource()) {
                 jedis.publish(channel, payload);
             } catch (Exception ex) {
@@ -117,6 +130,15 @@ public final class RedisBridge implements AutoCloseable {
             subscriberTask.cancel(true);
         }
         executor.shutdownNow();
+        publisher.shutdown();
+        try {
+            if (!publisher.awaitTermination(2, TimeUnit.SECONDS)) {
+                publisher.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            publisher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
         if (pool != null) {
             pool.close();
         }
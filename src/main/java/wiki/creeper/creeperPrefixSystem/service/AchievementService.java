@@ -11,15 +11,13 @@ import wiki.creeper.creeperPrefixSystem.data.achievement.PlayerAchievementState;
 import wiki.creeper.creeperPrefixSystem.event.AchievementUnlockEvent;
 import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
 import wiki.creeper.creeperPrefixSystem.util.EventDispatcher;
+import wiki.creeper.creeperPrefixSystem.util.MessageBatcher;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
 
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 
 /**
  * Coordinates achievement tracking and unlock notifications.
@@ -29,37 +27,26 @@ public final class AchievementService {
     private final TitlePlusPlugin plugin;
     private final MySqlStorage storage;
     private final AchievementRegistry registry;
-    private final ExecutorService executor;
-    private final Map<UUID, PlayerAchievementState> cache = new ConcurrentHashMap<>();
+    private final PlayerProfileCache profiles;
+    private final MessageBatcher messages;
+    private final PriorityExecutor executor;
 
     public AchievementService(TitlePlusPlugin plugin,
                               MySqlStorage storage,
                               AchievementRegistry registry,
-                              ExecutorService executor) {
+                              PlayerProfileCache profiles,
+                              MessageBatcher messages,
+                              PriorityExecutor executor) {
         this.plugin = plugin;
         this.storage = storage;
         this.registry = registry;
+        this.profiles = profiles;
+        this.messages = messages;
         this.executor = executor;
     }
 
-    public CompletableFuture<PlayerAchievementState> load(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            PlayerAchievementState state = new PlayerAchievementState();
-            storage.loadAchievementCompletions(uuid).forEach(state::addCompletion);
-            cache.put(uuid, state);
-            return state;
-        }, executor);
-    }
-
-    public void unload(UUID uuid) {
-        cache.remove(uuid);
-    }
-
     public void handleCollectionCount(UUID uuid, int collectionCount) {
-        PlayerAchievementState state = cache.get(uuid);
-        if (state == null) {
-            state = getOrLoadSync(uuid);
-        }
+        PlayerAchievementState state = getOrLoadSync(uuid);
         List<AchievementDefinition> definitions = registry.getByType(AchievementType.COLLECTION_COUNT);
         if (definitions.isEmpty()) {
             return;
@@ -78,31 +65,40 @@ public final class AchievementService {
         Instant now = Instant.now();
         int completionOrder = state.getCompletions().size() + 1;
 
-        AchievementUnlockEvent event = EventDispatcher.dispatch(plugin,
-                new AchievementUnlockEvent(uuid, definition, completionOrder, !Bukkit.isPrimaryThread()));
-        if (event.isCancelled()) {
-            return;
-        }
+        EventDispatcher.dispatchAsync(plugin,
+                        new AchievementUnlockEvent(uuid, definition, completionOrder, false))
+                .thenAccept(event -> {
+                    if (!event.isCancelled() && !state.hasCompletion(definition.getId())) {
+                        completeAchievement(uuid, definition, state, event, now);
+                    }
+                });
+    }
 
+    private void completeAchievement(UUID uuid, AchievementDefinition definition, PlayerAchievementState state,
+                                     AchievementUnlockEvent event, Instant now) {
         AchievementCompletion completion = new AchievementCompletion(definition.getId(), now, -1);
         state.addCompletion(completion);
 
         Player player = Bukkit.getPlayer(uuid);
         if (event.shouldAnnounce() && player != null && player.isOnline()) {
-            player.sendMessage("§b업적 달성! §f" + definition.getDisplay());
+            messages.send(uuid, "§b업적 달성! §f" + definition.getDisplay());
             if (!definition.getDescription().isEmpty()) {
-                player.sendMessage("§7" + definition.getDescription());
+                messages.send(uuid, "§7" + definition.getDescription());
             }
         }
 
-        executor.execute(() -> {
+        executor.execute(PriorityExecutor.Lane.INTERACTIVE, () -> {
             long globalRank = storage.insertAchievementCompletion(uuid, completion);
-            if (globalRank > 0) {
+            if (globalRank == MySqlStorage.RANK_PENDING) {
+                // Journaled while the database is unavailable: the rank is known after replay and the next load.
+                if (event.shouldAnnounce()) {
+                    messages.send(uuid, "§7업적 달성 순위는 데이터베이스 복구 후 집계됩니다.");
+                }
+            } else if (globalRank > 0) {
                 Bukkit.getScheduler().runTask(plugin, () -> {
                     completion.setGlobalRank(globalRank);
-                    Player online = Bukkit.getPlayer(uuid);
-                    if (event.shouldAnnounce() && online != null && online.isOnline()) {
-                        online.sendMessage("§7업적 달성 순위: §e#" + globalRank);
+                    if (event.shouldAnnounce()) {
+                        messages.send(uuid, "§7업적 달성 순위: §e#" + globalRank);
                     }
                 });
             }
@@ -118,10 +114,6 @@ public final class AchievementService {
     }
 
     private PlayerAchievementState getOrLoadSync(UUID uuid) {
-        return cache.computeIfAbsent(uuid, key -> {
-            PlayerAchievementState state = new PlayerAchievementState();
-            storage.loadAchievementCompletions(uuid).forEach(state::addCompletion);
-            return state;
-        });
+        return profiles.getOrLoadSync(uuid).achievements();
     }
 }
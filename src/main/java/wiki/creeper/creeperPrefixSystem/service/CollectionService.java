@@ -12,14 +12,13 @@ import wiki.creeper.creeperPrefixSystem.data.collection.PlayerCollectionState;
 import wiki.creeper.creeperPrefixSystem.event.CollectionRegisterEvent;
 import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
 import wiki.creeper.creeperPrefixSystem.util.EventDispatcher;
+import wiki.creeper.creeperPrefixSystem.util.MessageBatcher;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
 
 import java.time.Instant;
 import java.util.Collection;
-import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -34,32 +33,25 @@ public final class CollectionService {
     private final TitlePlusPlugin plugin;
     private final MySqlStorage storage;
     private final AchievementService achievementService;
-    private final ExecutorService executor;
-    private final Map<UUID, PlayerCollectionState> cache = new ConcurrentHashMap<>();
+    private final PlayerProfileCache profiles;
+    private final MessageBatcher messages;
+    private final PriorityExecutor executor;
+    private PlayerProfileService profileService;
 
     public CollectionService(TitlePlusPlugin plugin,
                              MySqlStorage storage,
                              AchievementService achievementService,
-                             ExecutorService executor) {
+                             PlayerProfileCache profiles,
+                             MessageBatcher messages,
+                             PriorityExecutor executor) {
         this.plugin = plugin;
         this.storage = storage;
         this.achievementService = achievementService;
+        this.profiles = profiles;
+        this.messages = messages;
         this.executor = executor;
     }
 
-    public CompletableFuture<PlayerCollectionState> load(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            PlayerCollectionState state = new PlayerCollectionState();
-            storage.loadCollectionEntries(uuid).forEach(state::addEntry);
-            cache.put(uuid, state);
-            return state;
-        }, executor);
-    }
-
-    public void unload(UUID uuid) {
-        cache.remove(uuid);
-    }
-
     public void markPlayerDrop(Item item) {
         item.setMetadata(DROPPED_METADATA_KEY, new FixedMetadataValue(plugin, Boolean.TRUE));
     }
@@ -83,7 +75,7 @@ public final class CollectionService {
         if (ThreadLocalRandom.current().nextDouble() >= REGISTER_CHANCE) {
             return;
         }
-        registerEntry(player.getUniqueId(), material, player, true, true);
+        registerEntryAsync(player.getUniqueId(), material, player, true, true);
     }
 
     public boolean registerEntry(UUID uuid, Material material) {
@@ -108,63 +100,79 @@ public final class CollectionService {
     }
 
     private boolean registerEntry(UUID uuid, Material material, Player context, boolean grantXp, boolean notify) {
+        return registerEntryAsync(uuid, material, context, grantXp, notify).join();
+    }
+
+    /**
+     * Registers an entry without blocking: the register event is fired on the main thread and the entry is
+     * recorded in its callback.
+     */
+    public CompletableFuture<Boolean> registerEntryAsync(UUID uuid, Material material, boolean grantXp, boolean notify) {
+        return registerEntryAsync(uuid, material, Bukkit.getPlayer(uuid), grantXp, notify);
+    }
+
+    private CompletableFuture<Boolean> registerEntryAsync(UUID uuid, Material material, Player context, boolean grantXp, boolean notify) {
         if (material == null || material.isAir()) {
-            return false;
-        }
-        PlayerCollectionState state = cache.get(uuid);
-        if (state == null) {
-            state = getOrLoadSync(uuid);
+            return CompletableFuture.completedFuture(false);
         }
+        PlayerCollectionState state = getOrLoadSync(uuid);
         if (state.hasEntry(material)) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         int previousCount = state.size();
         int rank = previousCount + 1;
         int xpReward = grantXp ? calculateXp(previousCount) : 0;
 
-        CollectionRegisterEvent event = EventDispatcher.dispatch(plugin,
-                new CollectionRegisterEvent(uuid, material, previousCount, rank, xpReward, grantXp, !Bukkit.isPrimaryThread()));
-        if (event.isCancelled()) {
-            return false;
-        }
+        return EventDispatcher.dispatchAsync(plugin,
+                        new CollectionRegisterEvent(uuid, material, previousCount, rank, xpReward, grantXp, false))
+                .thenApply(event -> !event.isCancelled() && !state.hasEntry(material)
+                        && completeEntry(uuid, material, context, notify, state, event));
+    }
 
-        rank = event.getPlayerRank();
-        xpReward = event.getXpReward();
-        grantXp = event.shouldGrantXp();
+    private boolean completeEntry(UUID uuid, Material material, Player context, boolean notify,
+                                  PlayerCollectionState state, CollectionRegisterEvent event) {
+        int rank = event.getPlayerRank();
+        int xpReward = event.getXpReward();
+        boolean grantXp = event.shouldGrantXp();
 
         Instant now = Instant.now();
         CollectionEntry entry = new CollectionEntry(material, now, rank, -1);
         state.addEntry(entry);
 
         Player player = context != null ? context : Bukkit.getPlayer(uuid);
+        if (player == null && profileService != null) {
+            // An offline player may still be retained on this node without the entry.
+            profileService.invalidateRetained(uuid);
+        }
         String display = formatMaterialName(material.name());
         boolean announce = notify && event.shouldAnnounce();
 
         if (announce && player != null) {
-            player.sendMessage("§6도감 등록! §f" + display + " §7(#" + rank + ")");
+            messages.send(uuid, "§6도감 등록! §f" + display + " §7(#" + rank + ")");
         }
         if (grantXp && xpReward > 0 && player != null) {
             player.giveExp(xpReward);
             if (announce) {
-                player.sendMessage("§a+" + xpReward + " 경험치");
+                messages.send(uuid, "§a+" + xpReward + " 경험치");
             }
         }
 
         achievementService.handleCollectionCount(uuid, state.size());
 
         final boolean shouldNotify = announce;
-        executor.execute(() -> {
+        executor.execute(PriorityExecutor.Lane.INTERACTIVE, () -> {
             long globalRank = storage.insertCollectionEntry(uuid, entry);
-            if (globalRank > 0) {
+            if (globalRank == MySqlStorage.RANK_PENDING) {
+                // Journaled while the database is unavailable: the rank is known after replay and the next load.
+                if (shouldNotify) {
+                    messages.send(uuid, "§7도감 등록 순위는 데이터베이스 복구 후 집계됩니다.");
+                }
+            } else if (globalRank > 0) {
                 Bukkit.getScheduler().runTask(plugin, () -> {
                     entry.setGlobalRank(globalRank);
-                    if (!shouldNotify) {
-                        return;
-                    }
-                    Player online = player != null && player.isOnline() ? player : Bukkit.getPlayer(uuid);
-                    if (online != null && online.isOnline()) {
-                        online.sendMessage("§7도감 등록 순위: §e#" + globalRank);
+                    if (shouldNotify) {
+                        messages.send(uuid, "§7도감 등록 순위: §e#" + globalRank);
                     }
                 });
             }
@@ -172,6 +180,10 @@ public final class CollectionService {
         return true;
     }
 
+    public void setProfileService(PlayerProfileService profileService) {
+        this.profileService = profileService;
+    }
+
     private String formatMaterialName(String material) {
         String[] parts = material.toLowerCase().split("_");
         StringBuilder builder = new StringBuilder();
@@ -188,11 +200,7 @@ public final class CollectionService {
     }
 
     private PlayerCollectionState getOrLoadSync(UUID uuid) {
-        return cache.computeIfAbsent(uuid, key -> {
-            PlayerCollectionState state = new PlayerCollectionState();
-            storage.loadCollectionEntries(uuid).forEach(state::addEntry);
-            return state;
-        });
+        return profiles.getOrLoadSync(uuid).collection();
     }
 
     private int calculateXp(int ownedBefore) {
@@ -0,0 +1,59 @@
+package wiki.creeper.creeperPrefixSystem.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Reverse index from a title or set id to the players that currently have its effects applied, so a reload
+ * can find the affected players without scanning every cached profile.
+ */
+final class EffectHolderIndex {
+
+    private final Map<String, Set<UUID>> holders = new HashMap<>();
+    private final Map<UUID, Set<String>> keys = new HashMap<>();
+
+    synchronized void add(String key, UUID uuid) {
+        holders.computeIfAbsent(key, ignored -> new HashSet<>()).add(uuid);
+        keys.computeIfAbsent(uuid, ignored -> new HashSet<>()).add(key);
+    }
+
+    synchronized void remove(String key, UUID uuid) {
+        Set<UUID> players = holders.get(key);
+        if (players != null && players.remove(uuid) && players.isEmpty()) {
+            holders.remove(key);
+        }
+        Set<String> held = keys.get(uuid);
+        if (held != null && held.remove(key) && held.isEmpty()) {
+            keys.remove(uuid);
+        }
+    }
+
+    synchronized void removeAll(UUID uuid) {
+        Set<String> held = keys.remove(uuid);
+        if (held == null) {
+            return;
+        }
+        for (String key : held) {
+            Set<UUID> players = holders.get(key);
+            if (players != null && players.remove(uuid) && players.isEmpty()) {
+                holders.remove(key);
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the players holding the key
+     */
+    synchronized List<UUID> holders(String key) {
+        Set<UUID> players = holders.get(key);
+        return players == null ? List.of() : List.copyOf(players);
+    }
+
+    synchronized int size() {
+        return keys.size();
+    }
+}
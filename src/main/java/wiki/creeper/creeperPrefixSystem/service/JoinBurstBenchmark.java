@@ -0,0 +1,101 @@
+package wiki.creeper.creeperPrefixSystem.service;
+
+import wiki.creeper.creeperPrefixSystem.config.ExecutorMode;
+import wiki.creeper.creeperPrefixSystem.config.StorageConfig;
+import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Measures join-burst latency for an executor mode: a burst of profile loads is submitted at once on the
+ * {@link PriorityExecutor.Lane#PLAYER_LOAD} lane of a dedicated executor, and the time from submission to
+ * completion of each load is recorded. Loads use random UUIDs, so every query is an index lookup that finds
+ * no rows: the numbers show scheduling and round-trip overhead, not the cost of loading a real profile.
+ * <p>
+ * The loads run on a separate pool of a quarter of the live pool size, so live join loads keep their
+ * connections. Blocks until the burst finishes, so it must not run on the server thread.
+ */
+public final class JoinBurstBenchmark implements AutoCloseable {
+
+    private static final int WARMUP_LOADS = 50;
+
+    private final MySqlStorage storage;
+    private final Logger logger;
+    private final int poolSize;
+
+    public JoinBurstBenchmark(StorageConfig config, Logger logger) {
+        this.poolSize = Math.max(1, config.maximumPoolSize() / 4);
+        this.storage = MySqlStorage.openSeparate(logger, config, "TitlePlus-Bench", poolSize);
+        this.logger = logger;
+    }
+
+    /**
+     * @return connections of the benchmark's own pool
+     */
+    public int poolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Runs a short unmeasured burst so the first measured mode does not pay for cold connections.
+     */
+    public void warmUp(int concurrency) throws InterruptedException {
+        burst(ExecutorMode.PLATFORM, concurrency, WARMUP_LOADS);
+    }
+
+    public Result run(ExecutorMode mode, int concurrency, int joins) throws InterruptedException {
+        long started = System.nanoTime();
+        long[] latencies = burst(mode, concurrency, joins);
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        Arrays.sort(latencies);
+        return new Result(mode, concurrency, joins, wallMillis, millis(latencies, 0.50D), millis(latencies, 0.95D),
+                millis(latencies, 1.0D));
+    }
+
+    private long[] burst(ExecutorMode mode, int concurrency, int joins) throws InterruptedException {
+        PriorityExecutor executor = new PriorityExecutor("TitlePlus-Bench-" + mode.name().toLowerCase(), mode,
+                concurrency, joins, logger, () -> true);
+        long[] latencies = new long[joins];
+        CountDownLatch done = new CountDownLatch(joins);
+        try {
+            for (int i = 0; i < joins; i++) {
+                int slot = i;
+                long submitted = System.nanoTime();
+                executor.execute(PriorityExecutor.Lane.PLAYER_LOAD, () -> {
+                    try {
+                        storage.loadPlayerProfile(UUID.randomUUID());
+                    } finally {
+                        latencies[slot] = System.nanoTime() - submitted;
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdown();
+        }
+        return latencies;
+    }
+
+    @Override
+    public void close() {
+        storage.close();
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0D;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0D;
+    }
+
+    public record Result(ExecutorMode mode, int concurrency, int joins, long wallMillis,
+                         double p50Millis, double p95Millis, double maxMillis) {
+    }
+}
@@ -16,6 +16,7 @@ public final class NetworkSyncService implements RedisBridge.StructuredRedisList
     private final StatService statService;
     private final String nodeId;
     private final boolean active;
+    private PlayerProfileService profileService;
 
     public NetworkSyncService(Logger logger,
                               RedisBridge redis,
@@ -87,6 +88,21 @@ public final class NetworkSyncService implements RedisBridge.StructuredRedisList
         redis.publishBroadcast(json);
     }
 
+    public void broadcastProfileInvalidate(UUID uuid) {
+        if (!active) {
+            return;
+        }
+        JsonObject json = new JsonObject();
+        json.addProperty("type", "profile:invalidate");
+        json.addProperty("node", nodeId);
+        json.addProperty("uuid", uuid.toString());
+        redis.publishBroadcast(json);
+    }
+
+    public void setProfileService(PlayerProfileService profileService) {
+        this.profileService = profileService;
+    }
+
     @Override
     public void onMessage(String channel, JsonObject message) {
         if (!active) {
@@ -97,7 +113,11 @@ public final class NetworkSyncService implements RedisBridge.StructuredRedisList
             return;
         }
         String type = message.get("type").getAsString();
+        invalidateRetained(message);
         switch (type) {
+            case "profile:invalidate" -> {
+                // Handled above; the retained copy is all there is to drop.
+            }
             case "stat:modifier:add" -> handleModifierAdd(message);
             case "stat:modifier:remove" -> handleModifierRemove(message);
             case "stat:base:set" -> handleBase(message);
@@ -105,6 +125,17 @@ public final class NetworkSyncService implements RedisBridge.StructuredRedisList
         }
     }
 
+    private void invalidateRetained(JsonObject message) {
+        if (profileService == null || !message.has("uuid")) {
+            return;
+        }
+        try {
+            profileService.invalidateRetained(UUID.fromString(message.get("uuid").getAsString()));
+        } catch (IllegalArgumentException ex) {
+            logger.fine("[TitlePlus] Ignoring payload with malformed uuid");
+        }
+    }
+
     private void handleModifierAdd(JsonObject message) {
         try {
             UUID uuid = UUID.fromString(message.get("uuid").getAsString());
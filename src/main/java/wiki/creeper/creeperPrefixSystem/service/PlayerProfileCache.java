@@ -0,0 +1,211 @@
+package wiki.creeper.creeperPrefixSystem.service;
+
+import org.bukkit.Bukkit;
+import wiki.creeper.creeperPrefixSystem.config.MainThreadPolicy;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfile;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfileData;
+import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The one per-player cache shared by every service. Each service reads its own slice from the
+ * {@link PlayerProfile} so a single lookup serves a whole event.
+ */
+public final class PlayerProfileCache {
+
+    private final MySqlStorage storage;
+    private final Logger logger;
+    private final MainThreadPolicy strictMainThread;
+    private final Map<UUID, PlayerProfile> profiles = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicLong staleLoads = new AtomicLong();
+    private final AtomicLong mainThreadLoads = new AtomicLong();
+
+    public PlayerProfileCache(MySqlStorage storage, Logger logger, MainThreadPolicy strictMainThread) {
+        this.storage = storage;
+        this.logger = logger;
+        this.strictMainThread = strictMainThread;
+    }
+
+    /**
+     * @return the profile if it is loaded and ready, otherwise {@code null}
+     */
+    public PlayerProfile get(UUID uuid) {
+        PlayerProfile profile = profiles.get(uuid);
+        if (profile == null || !profile.isReady()) {
+            return null;
+        }
+        profile.touch();
+        return profile;
+    }
+
+    /**
+     * Returns the ready profile, waiting for an in-flight load or loading it synchronously if the player is
+     * not cached at all (for example an admin command targeting an offline player).
+     */
+    public PlayerProfile getOrLoadSync(UUID uuid) {
+        PlayerProfile profile = profiles.get(uuid);
+        if (profile == null) {
+            checkBlockingLoad(uuid);
+            PlayerProfile created = new PlayerProfile(uuid, generations.incrementAndGet());
+            profile = profiles.putIfAbsent(uuid, created);
+            if (profile == null) {
+                PlayerProfileData data;
+                try {
+                    data = storage.loadPlayerProfile(uuid);
+                } catch (RuntimeException ex) {
+                    // Waiters on the loading profile would otherwise block forever.
+                    logger.log(Level.SEVERE, "Failed to load profile for " + uuid, ex);
+                    remove(created);
+                    created.fail(ex);
+                    throw ex;
+                }
+                publish(created, data);
+                return created;
+            }
+        } else if (!profile.isReady()) {
+            checkBlockingLoad(uuid);
+        }
+        profile.touch();
+        return profile.awaitReady();
+    }
+
+    /**
+     * Non-blocking variant of {@link #getOrLoadSync(UUID)}: attaches to an in-flight load or starts one on the
+     * given executor.
+     */
+    public CompletableFuture<PlayerProfile> getOrLoadAsync(UUID uuid, Executor executor) {
+        PlayerProfile profile = profiles.get(uuid);
+        if (profile == null) {
+            PlayerProfile created = new PlayerProfile(uuid, generations.incrementAndGet());
+            profile = profiles.putIfAbsent(uuid, created);
+            if (profile == null) {
+                CompletableFuture.supplyAsync(() -> storage.loadPlayerProfile(uuid), executor)
+                        .whenComplete((data, error) -> {
+                            if (error != null) {
+                                logger.log(Level.SEVERE, "Failed to load profile for " + uuid, error);
+                                remove(created);
+                                created.fail(error);
+                            } else {
+                                publish(created, data);
+                            }
+                        });
+                return created.whenReady();
+            }
+        }
+        profile.touch();
+        return profile.whenReady();
+    }
+
+    /**
+     * Applies {@code api.strict-main-thread} before a load would block the calling thread.
+     */
+    private void checkBlockingLoad(UUID uuid) {
+        if (strictMainThread == MainThreadPolicy.OFF || !Bukkit.isPrimaryThread()) {
+            return;
+        }
+        mainThreadLoads.incrementAndGet();
+        IllegalStateException violation = new IllegalStateException(
+                "Blocking profile load for " + uuid + " on the main thread; use the async API instead");
+        if (strictMainThread == MainThreadPolicy.THROW) {
+            throw violation;
+        }
+        logger.log(Level.WARNING, violation.getMessage(), violation);
+    }
+
+    /**
+     * Completes a load, but only makes it visible if the cache still holds the same generation. A load that
+     * finishes after its player was unloaded (and possibly reloaded) is dropped instead of resurrecting
+     * stale state; anyone already waiting on it still receives the data.
+     *
+     * @return whether the profile was published to the cache
+     */
+    public boolean publish(PlayerProfile profile, PlayerProfileData data) {
+        boolean[] published = new boolean[1];
+        profiles.computeIfPresent(profile.uuid(), (key, current) -> {
+            published[0] = current.generation() == profile.generation()
+                    && current.lifecycle() == PlayerProfile.Lifecycle.LOADING && profile.install(data);
+            return current;
+        });
+        if (published[0]) {
+            // Waiters are woken outside the compute: stages attached through whenReady() may touch this key.
+            profile.complete(data);
+        } else if (!profile.isReady()) {
+            staleLoads.incrementAndGet();
+            profile.markUnloading();
+            profile.complete(data);
+        }
+        return published[0];
+    }
+
+    /**
+     * Registers a new loading profile for the player unless one is already cached.
+     *
+     * @return the cached profile, which is the new one when {@link PlayerProfile#lifecycle()} is LOADING
+     */
+    public PlayerProfile begin(UUID uuid) {
+        return profiles.computeIfAbsent(uuid, key -> new PlayerProfile(key, generations.incrementAndGet()));
+    }
+
+    /**
+     * Removes the player's profile and marks it as unloading.
+     */
+    public PlayerProfile remove(UUID uuid) {
+        PlayerProfile profile = profiles.remove(uuid);
+        if (profile != null) {
+            profile.markUnloading();
+        }
+        return profile;
+    }
+
+    /**
+     * Removes the profile only if it is still the given generation.
+     */
+    public boolean remove(PlayerProfile profile) {
+        if (profiles.remove(profile.uuid(), profile)) {
+            profile.markUnloading();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return number of loads that completed after their profile had been unloaded or replaced
+     */
+    public long staleLoads() {
+        return staleLoads.get();
+    }
+
+    /**
+     * @return number of blocking loads detected on the main thread while strict mode is enabled
+     */
+    public long mainThreadLoads() {
+        return mainThreadLoads.get();
+    }
+
+    public Collection<PlayerProfile> all() {
+        return Collections.unmodifiableCollection(profiles.values());
+    }
+
+    public int size() {
+        return profiles.size();
+    }
+
+    public long estimatedEntries() {
+        long total = 0L;
+        for (PlayerProfile profile : profiles.values()) {
+            total += profile.estimatedEntries();
+        }
+        return total;
+    }
+}
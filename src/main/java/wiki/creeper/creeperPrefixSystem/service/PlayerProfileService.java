@@ -0,0 +1,265 @@
+package wiki.creeper.creeperPrefixSystem.service;
+
+import org.bukkit.Bukkit;
+import wiki.creeper.creeperPrefixSystem.config.TitlePlusConfiguration;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfile;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfileData;
+import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Drives the {@link PlayerProfile} lifecycle: loads a player's complete profile in a single database round
+ * trip, publishes it to the shared {@link PlayerProfileCache} and releases it again on disconnect.
+ */
+public final class PlayerProfileService {
+
+    private static final long PREFETCH_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Logger logger;
+    private final MySqlStorage storage;
+    private final PlayerProfileCache profiles;
+    private final StatService statService;
+    private final TitleService titleService;
+    private final RequirementService requirementService;
+    private final PriorityExecutor executor;
+    private final TitlePlusConfiguration configuration;
+    private final PlayerRetentionCache retention;
+    private NetworkSyncService networkSync;
+
+    private final Map<UUID, Prefetch> prefetched = new ConcurrentHashMap<>();
+    private final AtomicLong readyJoins = new AtomicLong();
+    private final AtomicLong notReadyJoins = new AtomicLong();
+    private final AtomicLong prefetchTimeouts = new AtomicLong();
+    private final AtomicLong sweptProfiles = new AtomicLong();
+
+    public PlayerProfileService(Logger logger,
+                                MySqlStorage storage,
+                                PlayerProfileCache profiles,
+                                StatService statService,
+                                TitleService titleService,
+                                RequirementService requirementService,
+                                PriorityExecutor executor,
+                                TitlePlusConfiguration configuration,
+                                PlayerRetentionCache retention) {
+        this.logger = logger;
+        this.storage = storage;
+        this.profiles = profiles;
+        this.statService = statService;
+        this.titleService = titleService;
+        this.requirementService = requirementService;
+        this.executor = executor;
+        this.configuration = configuration;
+        this.retention = retention;
+    }
+
+    /**
+     * Starts loading a profile while the player is still logging in and waits for it up to the configured
+     * timeout. Called from the async pre-login thread, so blocking here never stalls the main thread.
+     */
+    public void prefetch(UUID uuid) {
+        expireStalePrefetches();
+        PlayerProfileData retained = retention.take(uuid);
+        if (retained != null) {
+            prefetched.put(uuid, new Prefetch(CompletableFuture.completedFuture(retained), System.currentTimeMillis()));
+            return;
+        }
+        CompletableFuture<PlayerProfileData> future = loadFromStorage(uuid);
+        prefetched.put(uuid, new Prefetch(future, System.currentTimeMillis()));
+        try {
+            future.get(Math.max(1L, configuration.prefetchTimeoutMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // The load keeps running; join attaches to the same future instead of starting another one.
+            prefetchTimeouts.incrementAndGet();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            prefetched.remove(uuid);
+            logger.log(Level.WARNING, "Failed to prefetch profile for " + uuid, ex.getCause());
+        }
+    }
+
+    /**
+     * Publishes the prefetched or retained profile when the player joins, falling back to a fresh load if the
+     * pre-login stage did not run or has not finished yet.
+     */
+    public CompletableFuture<PlayerProfile> load(UUID uuid) {
+        Prefetch prefetch = prefetched.remove(uuid);
+        PlayerProfile profile = profiles.begin(uuid);
+        if (profile.isReady()) {
+            // Loaded on demand while the player was offline; that copy is current, so only activate it.
+            readyJoins.incrementAndGet();
+            titleService.activate(uuid, profile.titles());
+            return CompletableFuture.completedFuture(profile);
+        }
+        CompletableFuture<PlayerProfileData> future = prefetch == null ? null : prefetch.future();
+        if (future == null) {
+            PlayerProfileData retained = retention.take(uuid);
+            if (retained != null) {
+                future = CompletableFuture.completedFuture(retained);
+            }
+        }
+        if (future != null && future.isDone() && !future.isCompletedExceptionally()) {
+            readyJoins.incrementAndGet();
+            publish(profile, future.join());
+            return CompletableFuture.completedFuture(profile);
+        }
+        notReadyJoins.incrementAndGet();
+        if (future == null || future.isCompletedExceptionally()) {
+            future = loadFromStorage(uuid);
+        }
+        return future.handle((data, error) -> {
+            if (error != null) {
+                logger.log(Level.SEVERE, "Failed to load profile for " + uuid, error);
+                profiles.remove(profile);
+                profile.fail(error);
+            } else {
+                publish(profile, data);
+            }
+            return profile;
+        });
+    }
+
+    /**
+     * Returns the player's profile without blocking, loading it off-thread when it is not cached, e.g. for
+     * offline players queried through the async API.
+     */
+    public CompletableFuture<PlayerProfile> loadAsync(UUID uuid) {
+        return profiles.getOrLoadAsync(uuid, executor.lane(PriorityExecutor.Lane.INTERACTIVE));
+    }
+
+    private CompletableFuture<PlayerProfileData> loadFromStorage(UUID uuid) {
+        // Other nodes may still hold this player in their retention cache; that copy is stale from now on.
+        if (networkSync != null) {
+            networkSync.broadcastProfileInvalidate(uuid);
+        }
+        return CompletableFuture.supplyAsync(() -> storage.loadPlayerProfile(uuid), executor.lane(PriorityExecutor.Lane.PLAYER_LOAD));
+    }
+
+    /**
+     * Drops a prefetch for a login that was refused after the profile load started.
+     */
+    public void discardPrefetch(UUID uuid) {
+        prefetched.remove(uuid);
+    }
+
+    private void expireStalePrefetches() {
+        long cutoff = System.currentTimeMillis() - PREFETCH_RETENTION_MILLIS;
+        prefetched.values().removeIf(prefetch -> prefetch.startedAt() < cutoff);
+    }
+
+    /**
+     * Makes every slice visible to the services at once, then applies title and set effects.
+     */
+    private void publish(PlayerProfile profile, PlayerProfileData data) {
+        if (profiles.publish(profile, data)) {
+            statService.scheduleExpiries(profile.stats());
+            titleService.activate(profile.uuid(), profile.titles());
+        }
+    }
+
+    /**
+     * Evicts cached profiles whose player is not online and that have not been used within the grace
+     * window, such as profiles loaded on demand for offline players. Must run on the main thread.
+     *
+     * @return number of evicted profiles
+     */
+    public int sweep() {
+        expireStalePrefetches();
+        retention.expire();
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(Math.max(0L, configuration.cacheExpireSeconds()));
+        int evicted = 0;
+        for (PlayerProfile profile : profiles.all()) {
+            if (profile.lastAccess() >= cutoff || Bukkit.getPlayer(profile.uuid()) != null) {
+                continue;
+            }
+            if (profiles.remove(profile)) {
+                titleService.release(profile.uuid());
+                requirementService.flushProgress(profile.uuid());
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            sweptProfiles.addAndGet(evicted);
+            logger.info("Evicted " + evicted + " cached profiles of players who are no longer online.");
+        }
+        return evicted;
+    }
+
+    /**
+     * Releases a disconnected player's state. A fully loaded profile is moved into the retention cache and
+     * other nodes are told to drop any copy they retained earlier, since this node now has the newest one.
+     */
+    public void unload(UUID uuid) {
+        prefetched.remove(uuid);
+        PlayerProfile profile = profiles.remove(uuid);
+        titleService.release(uuid);
+        requirementService.flushProgress(uuid);
+        if (profile != null && profile.readyAt() > 0L) {
+            retention.retain(uuid, profile.snapshot());
+        }
+        if (networkSync != null) {
+            networkSync.broadcastProfileInvalidate(uuid);
+        }
+    }
+
+    /**
+     * Drops all cached state for the player without retaining it, so the next access reloads from storage.
+     */
+    public void invalidate(UUID uuid) {
+        prefetched.remove(uuid);
+        profiles.remove(uuid);
+        titleService.release(uuid);
+        retention.invalidate(uuid);
+        requirementService.flushProgress(uuid);
+    }
+
+    /**
+     * Evicts a retained profile after another node loaded or changed the player, or after this node wrote to
+     * a player it does not cache.
+     */
+    public void invalidateRetained(UUID uuid) {
+        retention.invalidate(uuid);
+    }
+
+    public PlayerRetentionCache getRetention() {
+        return retention;
+    }
+
+    public void setNetworkSync(NetworkSyncService networkSync) {
+        this.networkSync = networkSync;
+    }
+
+    public long readyJoins() {
+        return readyJoins.get();
+    }
+
+    public long notReadyJoins() {
+        return notReadyJoins.get();
+    }
+
+    public long prefetchTimeouts() {
+        return prefetchTimeouts.get();
+    }
+
+    public long sweptProfiles() {
+        return sweptProfiles.get();
+    }
+
+    public int pendingPrefetches() {
+        return prefetched.size();
+    }
+
+    private record Prefetch(CompletableFuture<PlayerProfileData> future, long startedAt) {
+    }
+}
@@ -0,0 +1,127 @@
+package wiki.creeper.creeperPrefixSystem.service;
+
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfileData;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the profiles of recently disconnected players for a grace period so a quick rejoin is served from
+ * memory. Every entry shares the same TTL, so insertion order is also expiry order and both TTL expiry and
+ * size-based eviction only ever touch the head of the map.
+ */
+public final class PlayerRetentionCache {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LinkedHashMap<UUID, Retained> entries = new LinkedHashMap<>();
+
+    private long hits;
+    private long misses;
+    private long expirations;
+    private long evictions;
+    private long invalidations;
+
+    public PlayerRetentionCache(long ttlSeconds, int maxEntries) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(Math.max(0L, ttlSeconds));
+        this.maxEntries = Math.max(0, maxEntries);
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0 && maxEntries > 0;
+    }
+
+    /**
+     * Retains a profile after its player disconnected, replacing any older copy.
+     */
+    public synchronized void retain(UUID uuid, PlayerProfileData profile) {
+        if (!isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        expire(now);
+        // Re-inserting moves the player to the tail so the map stays sorted by expiry.
+        entries.remove(uuid);
+        entries.put(uuid, new Retained(profile, now + ttlMillis));
+        while (entries.size() > maxEntries) {
+            Iterator<Map.Entry<UUID, Retained>> iterator = entries.entrySet().iterator();
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes and returns a retained profile that has not expired yet.
+     *
+     * @return the profile or {@code null} on a miss
+     */
+    public synchronized PlayerProfileData take(UUID uuid) {
+        expire(System.currentTimeMillis());
+        Retained retained = entries.remove(uuid);
+        if (retained == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return retained.profile();
+    }
+
+    /**
+     * Drops a retained profile because another node has loaded or modified the player.
+     */
+    public synchronized void invalidate(UUID uuid) {
+        if (entries.remove(uuid) != null) {
+            invalidations++;
+        }
+    }
+
+    public synchronized void expire() {
+        expire(System.currentTimeMillis());
+    }
+
+    private void expire(long now) {
+        Iterator<Retained> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt() > now) {
+                return;
+            }
+            iterator.remove();
+            expirations++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long expirations() {
+        return expirations;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized long invalidations() {
+        return invalidations;
+    }
+
+    private record Retained(PlayerProfileData profile, long expiresAt) {
+    }
+}
@@ -0,0 +1,128 @@
+package wiki.creeper.creeperPrefixSystem.service;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import wiki.creeper.creeperPrefixSystem.data.RegistryDiff;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfile;
+import wiki.creeper.creeperPrefixSystem.data.set.SetDefinition;
+import wiki.creeper.creeperPrefixSystem.data.title.TitleDefinition;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Carries a registry reload over to the players that are affected by it. Affected players are looked up
+ * through the equipped-title and active-set indexes of {@link TitleService}, and the resulting per-player
+ * work runs on the main thread in slices bounded by {@code reload.reconcile-budget-millis} per tick, so a
+ * reload never stalls the server no matter how many players are online.
+ * <p>
+ * All methods must be called on the main thread.
+ */
+public final class ReloadReconciler {
+
+    private final Plugin plugin;
+    private final TitleService titleService;
+    private final PlayerProfileCache profiles;
+    private final long budgetNanos;
+    private final Deque<Runnable> work = new ArrayDeque<>();
+    private final AtomicLong reconciledSteps = new AtomicLong();
+    private final AtomicLong slices = new AtomicLong();
+    private BukkitTask task;
+
+    public ReloadReconciler(Plugin plugin, TitleService titleService, PlayerProfileCache profiles, long budgetMillis) {
+        this.plugin = plugin;
+        this.titleService = titleService;
+        this.profiles = profiles;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, budgetMillis));
+    }
+
+    /**
+     * Queues the work for a reload and starts working through it on the current tick. Work from an earlier
+     * reload that is still pending runs first, so definitions are always moved forward in order.
+     *
+     * @return future completed once every affected player has been reconciled
+     */
+    public CompletableFuture<Void> reconcile(RegistryDiff<TitleDefinition> titles, RegistryDiff<SetDefinition> sets) {
+        for (Map.Entry<String, RegistryDiff.Change<TitleDefinition>> entry : titles.changed().entrySet()) {
+            RegistryDiff.Change<TitleDefinition> change = entry.getValue();
+            for (UUID uuid : titleService.equippedHolders(entry.getKey())) {
+                work.add(() -> titleService.reconcileTitle(uuid, change.before(), change.after()));
+            }
+        }
+        for (TitleDefinition removed : titles.removed().values()) {
+            for (UUID uuid : titleService.equippedHolders(removed.getId())) {
+                work.add(() -> titleService.reconcileTitle(uuid, removed, null));
+            }
+        }
+        for (Map.Entry<String, RegistryDiff.Change<SetDefinition>> entry : sets.changed().entrySet()) {
+            RegistryDiff.Change<SetDefinition> change = entry.getValue();
+            for (UUID uuid : titleService.activeSetHolders(entry.getKey())) {
+                work.add(() -> titleService.reconcileSet(uuid, change.before(), change.after()));
+            }
+        }
+        for (SetDefinition removed : sets.removed().values()) {
+            for (UUID uuid : titleService.activeSetHolders(removed.getId())) {
+                work.add(() -> titleService.reconcileSet(uuid, removed, null));
+            }
+        }
+        if (!sets.isEmpty()) {
+            // Membership may have changed for anyone owning a set member; this only touches the player's own sets.
+            for (PlayerProfile profile : profiles.all()) {
+                if (profile.isReady()) {
+                    UUID uuid = profile.uuid();
+                    work.add(() -> titleService.reconcileSets(uuid));
+                }
+            }
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        work.add(() -> done.complete(null));
+        tick();
+        if (!work.isEmpty() && task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+        return done;
+    }
+
+    private void tick() {
+        slices.incrementAndGet();
+        long deadline = System.nanoTime() + budgetNanos;
+        Runnable next;
+        while ((next = work.poll()) != null) {
+            try {
+                next.run();
+                reconciledSteps.incrementAndGet();
+            } catch (RuntimeException ex) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to reconcile reloaded effects", ex);
+            }
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        if (work.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * @return queued reconcile steps not processed yet
+     */
+    public int pending() {
+        return work.size();
+    }
+
+    public long reconciledSteps() {
+        return reconciledSteps.get();
+    }
+
+    public long slices() {
+        return slices.get();
+    }
+}
@@ -1,81 +1,144 @@
 package wiki.creeper.creeperPrefixSystem.service;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import wiki.creeper.creeperPrefixSystem.data.RegistryDiff;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfile;
 import wiki.creeper.creeperPrefixSystem.data.player.PlayerProgressState;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleDefinition;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleRegistry;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleRequirement;
 import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
+import wiki.creeper.creeperPrefixSystem.storage.ProgressWriteBuffer;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.logging.Level;
 
 /**
  * Tracks requirement progress for titles and evaluates unlock conditions in response to game actions.
  */
 public final class RequirementService {
 
+    private final Plugin plugin;
     private final TitleRegistry titleRegistry;
     private final MySqlStorage storage;
     private final TitleService titleService;
     private final WeeklyRankingService weeklyRankingService;
-    private final ExecutorService executor;
+    private final ProgressWriteBuffer progressBuffer;
+    private final PlayerProfileCache profiles;
+    private final PriorityExecutor executor;
+    private PlayerProfileService profileService;
 
-    private final Map<UUID, PlayerProgressState> cache = new ConcurrentHashMap<>();
-    private final Map<Material, List<TitleDefinition>> breakIndex = new ConcurrentHashMap<>();
-    private final Map<Material, List<TitleDefinition>> sellIndex = new ConcurrentHashMap<>();
+    // Copy-on-write: event handlers read a published map without locking, reloads swap in a patched copy.
+    private volatile Map<Material, List<TitleDefinition>> breakIndex = Map.of();
+    private volatile Map<Material, List<TitleDefinition>> sellIndex = Map.of();
 
-    public RequirementService(TitleRegistry titleRegistry,
+    public RequirementService(Plugin plugin,
+                              TitleRegistry titleRegistry,
                               MySqlStorage storage,
                               TitleService titleService,
                               WeeklyRankingService weeklyRankingService,
-                              ExecutorService executor) {
+                              ProgressWriteBuffer progressBuffer,
+                              PlayerProfileCache profiles,
+                              PriorityExecutor executor) {
+        this.plugin = plugin;
         this.titleRegistry = titleRegistry;
         this.storage = storage;
         this.titleService = titleService;
         this.weeklyRankingService = weeklyRankingService;
+        this.progressBuffer = progressBuffer;
+        this.profiles = profiles;
         this.executor = executor;
         rebuildIndexes();
     }
 
-    public void rebuildIndexes() {
-        breakIndex.clear();
-        sellIndex.clear();
+    public synchronized void rebuildIndexes() {
+        Map<Material, List<TitleDefinition>> breaks = new EnumMap<>(Material.class);
+        Map<Material, List<TitleDefinition>> sells = new EnumMap<>(Material.class);
         for (TitleDefinition definition : titleRegistry.all()) {
-            TitleRequirement requirement = definition.getRequirement();
-            if (requirement == null) {
-                continue;
-            }
-            Material material = requirement.getMaterial();
-            if (material == null) {
-                continue;
-            }
-            if (requirement.getType() == TitleRequirement.Type.BREAK) {
-                breakIndex.computeIfAbsent(material, key -> new ArrayList<>()).add(definition);
-            } else if (requirement.getType() == TitleRequirement.Type.SELL) {
-                sellIndex.computeIfAbsent(material, key -> new ArrayList<>()).add(definition);
+            index(breaks, sells, definition, true);
+        }
+        breakIndex = freeze(breaks);
+        sellIndex = freeze(sells);
+    }
+
+    /**
+     * Patches the requirement indexes with a title reload: only materials referenced by removed, added or
+     * changed titles are touched.
+     */
+    public synchronized void applyTitleChanges(RegistryDiff<TitleDefinition> diff) {
+        if (diff.isEmpty()) {
+            return;
+        }
+        Map<Material, List<TitleDefinition>> breaks = thaw(breakIndex);
+        Map<Material, List<TitleDefinition>> sells = thaw(sellIndex);
+        for (TitleDefinition definition : diff.outgoing()) {
+            index(breaks, sells, definition, false);
+        }
+        for (TitleDefinition definition : diff.incoming()) {
+            index(breaks, sells, definition, true);
+        }
+        breakIndex = freeze(breaks);
+        sellIndex = freeze(sells);
+    }
+
+    private static void index(Map<Material, List<TitleDefinition>> breaks,
+                              Map<Material, List<TitleDefinition>> sells,
+                              TitleDefinition definition,
+                              boolean add) {
+        TitleRequirement requirement = definition.getRequirement();
+        if (requirement == null || requirement.getMaterial() == null) {
+            return;
+        }
+        Map<Material, List<TitleDefinition>> target = switch (requirement.getType()) {
+            case BREAK -> breaks;
+            case SELL -> sells;
+            default -> null;
+        };
+        if (target == null) {
+            return;
+        }
+        Material material = requirement.getMaterial();
+        if (add) {
+            target.computeIfAbsent(material, key -> new ArrayList<>()).add(definition);
+            return;
+        }
+        List<TitleDefinition> list = target.get(material);
+        if (list != null) {
+            list.removeIf(existing -> existing.getId().equals(definition.getId()));
+            if (list.isEmpty()) {
+                target.remove(material);
             }
         }
     }
 
-    public CompletableFuture<PlayerProgressState> load(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            PlayerProgressState state = new PlayerProgressState();
-            Map<String, Long> rows = storage.loadTitleProgress(uuid);
-            rows.forEach(state::setProgress);
-            cache.put(uuid, state);
-            return state;
-        }, executor);
+    private static Map<Material, List<TitleDefinition>> thaw(Map<Material, List<TitleDefinition>> index) {
+        Map<Material, List<TitleDefinition>> copy = new EnumMap<>(Material.class);
+        index.forEach((material, list) -> copy.put(material, new ArrayList<>(list)));
+        return copy;
+    }
+
+    private static Map<Material, List<TitleDefinition>> freeze(Map<Material, List<TitleDefinition>> index) {
+        index.replaceAll((material, list) -> List.copyOf(list));
+        return Collections.unmodifiableMap(index);
     }
 
-    public void unload(UUID uuid) {
-        cache.remove(uuid);
+    /**
+     * Writes the player's buffered progress, typically once they disconnect. Queued on the interactive lane,
+     * since another server may load the player's progress as soon as they arrive there.
+     */
+    public void flushProgress(UUID uuid) {
+        executor.execute(PriorityExecutor.Lane.INTERACTIVE, () -> progressBuffer.flush(uuid));
     }
 
     public void handleBlockBreak(Player player, Material material) {
@@ -84,37 +147,59 @@ public final class RequirementService {
         if (candidates == null || candidates.isEmpty()) {
             return;
         }
-        PlayerProgressState state = cache.computeIfAbsent(uuid, id -> new PlayerProgressState());
+        // Never wait for or start a profile load on the main thread. Before the profile is ready the progress is
+        // only written as a relative row, which needs no in-memory state; the grant check waits for a later break.
+        PlayerProfile profile = profiles.get(uuid);
+        if (profile == null) {
+            for (TitleDefinition definition : candidates) {
+                progressBuffer.increment(uuid, definition.getId(), 1);
+            }
+            weeklyRankingService.incrementMetric(uuid, weeklyRankingService.getDefaultMetric(), 1);
+            return;
+        }
+        PlayerProgressState state = profile.progress();
         for (TitleDefinition definition : candidates) {
-            if (titleService.getOwnedTitles(uuid).contains(definition.getId())) {
+            if (profile.titles().isOwned(definition.getOrdinal())) {
                 continue;
             }
             TitleRequirement requirement = definition.getRequirement();
             long value = state.addProgress(definition.getId(), 1);
             if (requirement.getAmount() > 0 && value >= requirement.getAmount()) {
-                titleService.grantTitle(uuid, definition.getId());
+                titleService.requestGrant(uuid, definition.getId());
             }
-            executor.execute(() -> storage.incrementTitleProgress(uuid, definition.getId(), 1));
+            progressBuffer.increment(uuid, definition.getId(), 1);
         }
         weeklyRankingService.incrementMetric(uuid, weeklyRankingService.getDefaultMetric(), 1);
     }
 
+    /**
+     * Adds progress for an admin command or API call. A player without a ready profile is loaded off-thread
+     * first and the progress is applied on the main thread once it is ready.
+     */
     public void addProgress(UUID uuid, String titleId, long amount) {
         if (amount <= 0) {
             return;
         }
-        PlayerProgressState state = cache.computeIfAbsent(uuid, id -> new PlayerProgressState());
-        long value = state.addProgress(titleId, amount);
-        executor.execute(() -> storage.setTitleProgress(uuid, titleId, value));
+        withProfile(uuid, profile -> applyProgress(profile, titleId, amount));
+    }
+
+    private void applyProgress(PlayerProfile profile, String titleId, long amount) {
+        UUID uuid = profile.uuid();
+        long value = profile.progress().addProgress(titleId, amount);
+        progressBuffer.set(uuid, titleId, value);
         TitleDefinition definition = titleRegistry.get(titleId);
         if (definition != null) {
             TitleRequirement requirement = definition.getRequirement();
             if (requirement != null && requirement.getAmount() > 0 && value >= requirement.getAmount()) {
-                titleService.grantTitle(uuid, titleId);
+                titleService.requestGrant(uuid, titleId);
             }
         }
     }
 
+    /**
+     * Records a sale reported by an admin command or API call, loading the player off-thread like
+     * {@link #addProgress(UUID, String, long)} when they have no ready profile.
+     */
     public void handleSell(UUID uuid, Material material, long amount) {
         if (amount <= 0) {
             return;
@@ -123,24 +208,57 @@ public final class RequirementService {
         if (candidates == null || candidates.isEmpty()) {
             return;
         }
-        PlayerProgressState state = cache.computeIfAbsent(uuid, id -> new PlayerProgressState());
+        weeklyRankingService.incrementMetric(uuid, weeklyRankingService.getDefaultMetric(), amount);
+        withProfile(uuid, profile -> applySell(profile, candidates, amount));
+    }
+
+    private void applySell(PlayerProfile profile, List<TitleDefinition> candidates, long amount) {
+        UUID uuid = profile.uuid();
+        PlayerProgressState state = profile.progress();
         for (TitleDefinition definition : candidates) {
-            if (titleService.getOwnedTitles(uuid).contains(definition.getId())) {
+            if (profile.titles().isOwned(definition.getOrdinal())) {
                 continue;
             }
             TitleRequirement requirement = definition.getRequirement();
             long value = state.addProgress(definition.getId(), amount);
             if (requirement.getAmount() > 0 && value >= requirement.getAmount()) {
-                titleService.grantTitle(uuid, definition.getId());
+                titleService.requestGrant(uuid, definition.getId());
             }
-            long increment = amount;
-            executor.execute(() -> storage.incrementTitleProgress(uuid, definition.getId(), increment));
+            progressBuffer.increment(uuid, definition.getId(), amount);
         }
-        weeklyRankingService.incrementMetric(uuid, weeklyRankingService.getDefaultMetric(), amount);
+    }
+
+    /**
+     * Runs {@code action} on the main thread with the player's ready profile, right away when it is cached
+     * and otherwise once {@link PlayerProfileService#loadAsync(UUID)} has loaded it.
+     */
+    private void withProfile(UUID uuid, Consumer<PlayerProfile> action) {
+        PlayerProfile profile = profiles.get(uuid);
+        if (profile != null && Bukkit.isPrimaryThread()) {
+            action.accept(profile);
+            return;
+        }
+        CompletableFuture<PlayerProfile> ready;
+        if (profile != null) {
+            ready = CompletableFuture.completedFuture(profile);
+        } else {
+            // A retained copy of an offline player would not see this progress.
+            profileService.invalidateRetained(uuid);
+            ready = profileService.loadAsync(uuid);
+        }
+        ready.thenAcceptAsync(action, Bukkit.getScheduler().getMainThreadExecutor(plugin))
+                .exceptionally(ex -> {
+                    plugin.getLogger().log(Level.SEVERE, "Failed to apply requirement progress for " + uuid, ex);
+                    return null;
+                });
+    }
+
+    public void setProfileService(PlayerProfileService profileService) {
+        this.profileService = profileService;
     }
 
     public long getProgress(UUID uuid, String titleId) {
-        PlayerProgressState state = cache.get(uuid);
-        return state == null ? 0L : state.getProgress(titleId);
+        PlayerProfile profile = profiles.get(uuid);
+        return profile == null ? 0L : profile.progress().getProgress(titleId);
     }
 }
@@ -5,9 +5,9 @@ import wiki.creeper.creeperPrefixSystem.data.season.SeasonSnapshot;
 import wiki.creeper.creeperPrefixSystem.data.season.SeasonState;
 import wiki.creeper.creeperPrefixSystem.redis.RedisBridge;
 import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
 
 import java.util.Optional;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
 
@@ -19,7 +19,7 @@ public final class SeasonService {
     private final Logger logger;
     private final MySqlStorage storage;
     private final RedisBridge redis;
-    private final ExecutorService executor;
+    private final PriorityExecutor executor;
     private final TitlePlusConfiguration configuration;
 
     private final AtomicReference<SeasonSnapshot> current = new AtomicReference<>();
@@ -27,7 +27,7 @@ public final class SeasonService {
     public SeasonService(Logger logger,
                          MySqlStorage storage,
                          RedisBridge redis,
-                         ExecutorService executor,
+                         PriorityExecutor executor,
                          TitlePlusConfiguration configuration) {
         this.logger = logger;
         this.storage = storage;
@@ -37,7 +37,7 @@ public final class SeasonService {
     }
 
     public void init() {
-        executor.execute(() -> {
+        executor.execute(PriorityExecutor.Lane.BACKGROUND, () -> {
             SeasonSnapshot snapshot = storage.loadLatestSeason();
             if (snapshot != null) {
                 current.set(snapshot);
@@ -60,7 +60,7 @@ public final class SeasonService {
     }
 
     public void refreshFromDatabase() {
-        executor.execute(() -> {
+        executor.execute(PriorityExecutor.Lane.BACKGROUND, () -> {
             SeasonSnapshot snapshot = storage.loadLatestSeason();
             if (snapshot != null) {
                 current.set(snapshot);
@@ -78,7 +78,7 @@ public final class SeasonService {
         }
         SeasonSnapshot updated = new SeasonSnapshot(snapshot.id(), snapshot.name(), snapshot.startAt(), snapshot.endAt(), newState);
         current.set(updated);
-        executor.execute(() -> storage.updateSeasonState(snapshot.id(), newState));
+        executor.execute(PriorityExecutor.Lane.INTERACTIVE, () -> storage.updateSeasonState(snapshot.id(), newState));
         if (configuration.redis().enabled()) {
             redis.publishBroadcast("season:" + newState.name());
         }
@@ -0,0 +1,80 @@
+package wiki.creeper.creeperPrefixSystem.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Hashed timing wheel with one-second ticks for temporary stat modifiers. Scheduling is O(1) and each
+ * {@link #advance(long)} only visits the slots that elapsed since the previous call. Entries further away
+ * than one revolution stay in their slot until the wheel comes around to their deadline. Scheduling the same
+ * modifier deadline twice, e.g. when a retained profile is published again, keeps a single entry.
+ */
+final class StatExpiryWheel {
+
+    private static final long TICK_MILLIS = 1000L;
+    private static final int SLOTS = 512;
+    private static final int MASK = SLOTS - 1;
+
+    private final List<List<Entry>> slots = new ArrayList<>(SLOTS);
+    private final Set<Key> scheduled = new HashSet<>();
+    private long currentTick;
+    private int size;
+
+    StatExpiryWheel(long now) {
+        for (int i = 0; i < SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = now / TICK_MILLIS;
+    }
+
+    synchronized void schedule(UUID uuid, String statId, String sourceId, long expireAt) {
+        if (!scheduled.add(new Key(uuid, statId, sourceId, expireAt))) {
+            return;
+        }
+        // Round up so an entry never fires before its deadline; already-due entries fire on the next advance.
+        long deadline = Math.max((expireAt + TICK_MILLIS - 1) / TICK_MILLIS, currentTick + 1);
+        slots.get((int) (deadline & MASK)).add(new Entry(uuid, statId, sourceId, expireAt, deadline));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code now} and returns every entry whose deadline has passed.
+     */
+    synchronized List<Entry> advance(long now) {
+        long target = now / TICK_MILLIS;
+        if (target <= currentTick) {
+            return List.of();
+        }
+        List<Entry> due = new ArrayList<>();
+        // After a long stall every slot has elapsed at least once, so one full turn is enough.
+        long steps = Math.min(target - currentTick, SLOTS);
+        for (long step = 1; step <= steps; step++) {
+            Iterator<Entry> iterator = slots.get((int) ((currentTick + step) & MASK)).iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.deadline() <= target) {
+                    due.add(entry);
+                    iterator.remove();
+                    scheduled.remove(new Key(entry.uuid(), entry.statId(), entry.sourceId(), entry.expireAt()));
+                }
+            }
+        }
+        currentTick = target;
+        size -= due.size();
+        return due;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    record Entry(UUID uuid, String statId, String sourceId, long expireAt, long deadline) {
+    }
+
+    private record Key(UUID uuid, String statId, String sourceId, long expireAt) {
+    }
+}
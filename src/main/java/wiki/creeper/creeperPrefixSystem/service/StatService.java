@@ -1,19 +1,30 @@
 package wiki.creeper.creeperPrefixSystem.service;
 
 import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfile;
 import wiki.creeper.creeperPrefixSystem.data.player.PlayerStatState;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatDefinition;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatIndex;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatModifier;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatRegistry;
+import wiki.creeper.creeperPrefixSystem.data.stat.StatVector;
+import wiki.creeper.creeperPrefixSystem.event.StatModifierExpireEvent;
 import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
+import wiki.creeper.creeperPrefixSystem.util.EventDispatcher;
+import wiki.creeper.creeperPrefixSystem.util.MessageBatcher;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages player stat base values and modifiers. Computations are cached per player and periodically
@@ -21,73 +32,152 @@ import java.util.concurrent.*;
  */
 public final class StatService {
 
+    /** Read in place of a player whose profile is not ready; every stat resolves to its default. */
+    private static final PlayerStatState NOT_LOADED = new PlayerStatState();
+
     private final Plugin plugin;
     private final StatRegistry statRegistry;
     private final MySqlStorage storage;
-    private final ExecutorService executor;
-    private final Map<UUID, PlayerStatState> cache = new ConcurrentHashMap<>();
+    private final PlayerProfileCache profiles;
+    private final MessageBatcher messages;
+    private final PriorityExecutor executor;
+    private final StatExpiryWheel expiryWheel = new StatExpiryWheel(System.currentTimeMillis());
+    private final AtomicLong expiredModifiers = new AtomicLong();
     private NetworkSyncService networkSync;
+    private PlayerProfileService profileService;
 
-    public StatService(Plugin plugin, StatRegistry statRegistry, MySqlStorage storage, ExecutorService executor) {
+    public StatService(Plugin plugin, StatRegistry statRegistry, MySqlStorage storage, PlayerProfileCache profiles, MessageBatcher messages, PriorityExecutor executor) {
         this.plugin = plugin;
         this.statRegistry = statRegistry;
         this.storage = storage;
+        this.profiles = profiles;
+        this.messages = messages;
         this.executor = executor;
     }
 
-    public CompletableFuture<PlayerStatState> load(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            PlayerStatState state = new PlayerStatState();
-            storage.loadPlayerStats(uuid, state);
-            cache.put(uuid, state);
-            return state;
-        }, executor);
+    public double getStat(UUID uuid, String statId) {
+        int ordinal = StatIndex.ordinalOf(statId);
+        StatDefinition definition = statRegistry.get(ordinal);
+        if (definition == null) {
+            return 0.0D;
+        }
+        return readState(uuid).resolve(ordinal, definition, statRegistry.version());
     }
 
-    public void unload(UUID uuid) {
-        cache.remove(uuid);
+    /**
+     * Computes every defined stat of the player in one pass over a single state snapshot.
+     */
+    public StatVector getStats(UUID uuid) {
+        return readState(uuid).resolveAll(statRegistry);
     }
 
-    public double getStat(UUID uuid, String statId) {
-        PlayerStatState state = cache.get(uuid);
-        if (state == null) {
-            state = new PlayerStatState();
-            cache.put(uuid, state);
-            storage.loadPlayerStats(uuid, state);
+    /**
+     * Never blocks: a player whose profile is not ready reads as the registry defaults, and a missing profile
+     * is loaded in the background so later reads see the real values.
+     */
+    private PlayerStatState readState(UUID uuid) {
+        PlayerStatState state = stateOf(uuid);
+        if (state != null) {
+            return state;
+        }
+        if (profileService != null) {
+            profileService.loadAsync(uuid);
         }
-        StatDefinition definition = statRegistry.get(statId);
+        return NOT_LOADED;
+    }
+
+    /**
+     * Computes one stat for many players, resolving the stat definition only once. Only profiles that are
+     * already cached and ready are read; players without one are left out rather than loaded, so this never
+     * blocks and does not fill the cache with profiles nobody keeps.
+     *
+     * @return values of the cached players in the iteration order of {@code uuids}; empty if the stat is not
+     * defined
+     */
+    public Map<UUID, Double> getStats(Collection<UUID> uuids, String statId) {
+        int ordinal = StatIndex.ordinalOf(statId);
+        StatDefinition definition = statRegistry.get(ordinal);
         if (definition == null) {
-            return 0.0D;
+            return Collections.emptyMap();
+        }
+        long version = statRegistry.version();
+        Map<UUID, Double> values = new LinkedHashMap<>();
+        for (UUID uuid : uuids) {
+            PlayerProfile profile = profiles.get(uuid);
+            if (profile != null) {
+                values.put(uuid, profile.stats().resolve(ordinal, definition, version));
+            }
         }
-        double value = state.getBaseValue(statId);
-        if (value == 0.0D) {
-            value = definition.getDefaultValue();
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Registers the timed modifiers of a freshly loaded profile with the expiry wheel.
+     */
+    public void scheduleExpiries(PlayerStatState state) {
+        state.forEachModifier(this::scheduleExpiry);
+    }
+
+    private void scheduleExpiry(StatModifier modifier) {
+        if (modifier.getExpireAt() != null) {
+            expiryWheel.schedule(modifier.getPlayerId(), modifier.getStatId(), modifier.getSourceId(), modifier.getExpireAt().toEpochMilli());
         }
+    }
 
-        double additive = 0.0D;
-        double multiplier = 1.0D;
-        Double setOverride = null;
-        Collection<StatModifier> modifiers = state.getModifiers(statId);
-        Instant now = Instant.now();
-        for (StatModifier modifier : modifiers) {
-            if (modifier.isExpired(now)) {
-                removeModifierInternal(uuid, modifier.getStatId(), modifier.getSourceId(), true);
+    /**
+     * Advances the expiry wheel and removes every modifier whose deadline passed. Storage deletes are sent as
+     * one batch and each affected player receives a single {@link StatModifierExpireEvent}. Runs on the main
+     * thread once per second.
+     *
+     * @return number of modifiers removed from cached players
+     */
+    public int expireModifiers() {
+        List<StatExpiryWheel.Entry> due = expiryWheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return 0;
+        }
+        List<MySqlStorage.StatModifierExpiry> deletes = new ArrayList<>(due.size());
+        Map<UUID, List<StatModifier>> expiredByPlayer = new LinkedHashMap<>();
+        for (StatExpiryWheel.Entry entry : due) {
+            deletes.add(new MySqlStorage.StatModifierExpiry(entry.uuid(), entry.statId(), entry.sourceId(), entry.expireAt()));
+            PlayerStatState state = stateOf(entry.uuid());
+            if (state == null) {
                 continue;
             }
-            switch (modifier.getOperation()) {
-                case ADD -> additive += modifier.getValue();
-                case MULT -> multiplier *= (1.0D + modifier.getValue());
-                case SET -> setOverride = modifier.getValue();
+            StatModifier current = state.getModifier(entry.statId(), entry.sourceId());
+            // Skip modifiers that were removed or re-applied with a different expiry after being scheduled.
+            if (current == null || current.getExpireAt() == null || current.getExpireAt().toEpochMilli() != entry.expireAt()) {
+                continue;
             }
+            state.removeModifier(entry.statId(), entry.sourceId());
+            expiredByPlayer.computeIfAbsent(entry.uuid(), key -> new ArrayList<>()).add(current);
+        }
+        executor.execute(PriorityExecutor.Lane.BACKGROUND, () -> storage.removeExpiredStatModifiers(deletes));
+        int removed = 0;
+        for (Map.Entry<UUID, List<StatModifier>> entry : expiredByPlayer.entrySet()) {
+            removed += entry.getValue().size();
+            EventDispatcher.dispatch(plugin, new StatModifierExpireEvent(entry.getKey(), entry.getValue(), false));
         }
-        double computed = setOverride != null ? setOverride : (value + additive) * multiplier;
-        return definition.clamp(computed);
+        expiredModifiers.addAndGet(removed);
+        return removed;
+    }
+
+    public int scheduledExpiries() {
+        return expiryWheel.size();
+    }
+
+    public long expiredModifiers() {
+        return expiredModifiers.get();
     }
 
     public void setBaseStat(UUID uuid, String statId, double value) {
-        PlayerStatState state = cache.computeIfAbsent(uuid, key -> new PlayerStatState());
-        state.setBaseValue(statId, value);
-        executor.execute(() -> storage.saveBaseStat(uuid, statId, value));
+        PlayerStatState state = stateOf(uuid);
+        if (state != null) {
+            state.setBaseValue(statId, value);
+        } else {
+            dropRetained(uuid);
+        }
+        executor.execute(PriorityExecutor.Lane.INTERACTIVE, () -> storage.saveBaseStat(uuid, statId, value));
         broadcastBase(uuid, statId, value);
     }
 
@@ -107,9 +197,14 @@ public final class StatService {
     }
 
     private void addModifierInternal(StatModifier modifier, boolean broadcast, boolean notifyPlayer) {
-        PlayerStatState state = cache.computeIfAbsent(modifier.getPlayerId(), key -> new PlayerStatState());
-        state.putModifier(modifier);
-        executor.execute(() -> storage.upsertStatModifier(modifier));
+        PlayerStatState state = stateOf(modifier.getPlayerId());
+        if (state != null) {
+            state.putModifier(modifier);
+            scheduleExpiry(modifier);
+        } else {
+            dropRetained(modifier.getPlayerId());
+        }
+        executor.execute(PriorityExecutor.Lane.INTERACTIVE, () -> storage.upsertStatModifier(modifier));
         if (broadcast && networkSync != null) {
             networkSync.broadcastModifierAdd(new NetworkSyncService.StatModifierPayload(
                     modifier.getPlayerId(),
@@ -120,23 +215,32 @@ public final class StatService {
                     modifier.getExpireAt() == null ? null : modifier.getExpireAt().toEpochMilli()
             ));
         }
-        if (notifyPlayer) {
-            Player player = Bukkit.getPlayer(modifier.getPlayerId());
-            if (player != null) {
-                String message = "§aYour stat " + modifier.getStatId() + " was modified by " + modifier.getSourceId() + ".";
-                Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(message));
-            }
+        if (notifyPlayer && Bukkit.getPlayer(modifier.getPlayerId()) != null) {
+            // Several set or title effects applied in one tick collapse into a single line.
+            messages.sendMerged(modifier.getPlayerId(), "stat-modified", modifier.getStatId(),
+                    stats -> "§aYour stat " + String.join(", ", stats) + " was modified.");
         }
     }
 
+    /**
+     * For a player who is not cached here the row is deleted in storage, so the removal also applies when
+     * they are offline; a local removal then reports {@code true} without knowing whether the row existed.
+     */
     private boolean removeModifierInternal(UUID uuid, String statId, String sourceId, boolean broadcast) {
-        PlayerStatState state = cache.get(uuid);
+        PlayerStatState state = stateOf(uuid);
         if (state == null) {
-            return false;
+            dropRetained(uuid);
+            if (broadcast) {
+                executor.execute(PriorityExecutor.Lane.INTERACTIVE, () -> storage.removeStatModifier(uuid, statId, sourceId));
+                if (networkSync != null) {
+                    networkSync.broadcastModifierRemove(uuid, statId, sourceId);
+                }
+            }
+            return broadcast;
         }
         boolean removed = state.removeModifier(statId, sourceId);
         if (removed) {
-            executor.execute(() -> storage.removeStatModifier(uuid, statId, sourceId));
+            executor.execute(PriorityExecutor.Lane.INTERACTIVE, () -> storage.removeStatModifier(uuid, statId, sourceId));
             if (broadcast && networkSync != null) {
                 networkSync.broadcastModifierRemove(uuid, statId, sourceId);
             }
@@ -166,11 +270,37 @@ public final class StatService {
     }
 
     public void applyNetworkBase(UUID uuid, String statId, double value) {
-        PlayerStatState state = cache.computeIfAbsent(uuid, key -> new PlayerStatState());
-        state.setBaseValue(statId, value);
+        PlayerStatState state = stateOf(uuid);
+        if (state != null) {
+            state.setBaseValue(statId, value);
+        } else {
+            dropRetained(uuid);
+        }
+    }
+
+    /**
+     * Players who are not cached on this node are only written to storage, and {@link #dropRetained(UUID)}
+     * makes sure their next load reads it instead of a retained snapshot.
+     */
+    private PlayerStatState stateOf(UUID uuid) {
+        PlayerProfile profile = profiles.get(uuid);
+        return profile == null ? null : profile.stats();
+    }
+
+    /**
+     * Drops this node's retained copy of a player who is not cached, since it predates the write.
+     */
+    private void dropRetained(UUID uuid) {
+        if (profileService != null) {
+            profileService.invalidateRetained(uuid);
+        }
     }
 
     public void setNetworkSync(NetworkSyncService networkSync) {
         this.networkSync = networkSync;
     }
+
+    public void setProfileService(PlayerProfileService profileService) {
+        this.profileService = profileService;
+    }
 }
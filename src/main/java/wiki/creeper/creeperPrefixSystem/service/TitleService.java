@@ -5,8 +5,10 @@ import org.bukkit.entity.Player;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.plugin.Plugin;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfile;
 import wiki.creeper.creeperPrefixSystem.data.player.PlayerTitleState;
 import wiki.creeper.creeperPrefixSystem.data.set.SetDefinition;
+import wiki.creeper.creeperPrefixSystem.data.set.SetIndex;
 import wiki.creeper.creeperPrefixSystem.data.set.SetRegistry;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleDefinition;
 import wiki.creeper.creeperPrefixSystem.data.title.TitleEffect;
@@ -17,13 +19,15 @@ import wiki.creeper.creeperPrefixSystem.event.TitleRevokeEvent;
 import wiki.creeper.creeperPrefixSystem.event.TitleSetActivateEvent;
 import wiki.creeper.creeperPrefixSystem.event.TitleSetDeactivateEvent;
 import wiki.creeper.creeperPrefixSystem.event.TitleUnequipEvent;
+import wiki.creeper.creeperPrefixSystem.storage.EquipWriteBuffer;
 import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
 import wiki.creeper.creeperPrefixSystem.util.EventDispatcher;
+import wiki.creeper.creeperPrefixSystem.util.MessageBatcher;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
 
 /**
  * Service responsible for loading player title data, applying effects, and coordinating set bonuses.
@@ -34,73 +38,181 @@ public final class TitleService {
     private final TitleRegistry titleRegistry;
     private final SetRegistry setRegistry;
     private final MySqlStorage storage;
+    private final EquipWriteBuffer equipBuffer;
     private final StatService statService;
-    private final ExecutorService executor;
-
-    private final Map<UUID, PlayerTitleState> cache = new ConcurrentHashMap<>();
-    private final Map<UUID, Set<String>> activeSets = new ConcurrentHashMap<>();
+    private final PlayerProfileCache profiles;
+    private final MessageBatcher messages;
+    private final PriorityExecutor executor;
+    private final EffectHolderIndex equippedIndex = new EffectHolderIndex();
+    private final EffectHolderIndex activeSetIndex = new EffectHolderIndex();
+    private PlayerProfileService profileService;
 
     public TitleService(Plugin plugin,
                         TitleRegistry titleRegistry,
                         SetRegistry setRegistry,
                         MySqlStorage storage,
+                        EquipWriteBuffer equipBuffer,
                         StatService statService,
-                        ExecutorService executor) {
+                        PlayerProfileCache profiles,
+                        MessageBatcher messages,
+                        PriorityExecutor executor) {
         this.plugin = plugin;
         this.titleRegistry = titleRegistry;
         this.setRegistry = setRegistry;
         this.storage = storage;
+        this.equipBuffer = equipBuffer;
         this.statService = statService;
+        this.profiles = profiles;
+        this.messages = messages;
         this.executor = executor;
     }
 
-    public CompletableFuture<PlayerTitleState> load(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            PlayerTitleState state = new PlayerTitleState();
-            storage.loadPlayerTitles(uuid, state);
-            cache.put(uuid, state);
-            return state;
-        }, executor).thenApply(state -> {
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                state.getEquippedTitle().flatMap(id -> Optional.ofNullable(titleRegistry.get(id)))
-                        .ifPresent(definition -> applyEffects(uuid, definition, false));
-                recalculateSets(uuid, state);
-            });
-            return state;
+    /**
+     * Applies the equipped title and set effects of a freshly published profile on the main thread.
+     */
+    public void activate(UUID uuid, PlayerTitleState state) {
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            state.getEquippedTitle().flatMap(id -> Optional.ofNullable(titleRegistry.get(id)))
+                    .ifPresent(definition -> {
+                        applyEffects(uuid, definition, false);
+                        equippedIndex.add(definition.getId(), uuid);
+                    });
+            // A retained profile keeps its active sets, which recalculateSets treats as already applied.
+            for (String setId : state.getActiveSets()) {
+                activeSetIndex.add(setId, uuid);
+            }
+            recalculateSets(uuid, state);
         });
     }
 
-    public void unload(UUID uuid) {
-        cache.remove(uuid);
-        activeSets.remove(uuid);
+    /**
+     * @return players whose equipped title is {@code titleId}
+     */
+    List<UUID> equippedHolders(String titleId) {
+        return equippedIndex.holders(titleId);
+    }
+
+    /**
+     * @return players with the bonuses of {@code setId} applied
+     */
+    List<UUID> activeSetHolders(String setId) {
+        return activeSetIndex.holders(setId);
+    }
+
+    /**
+     * Moves an equipped title from its old definition to its reloaded one, touching only the effects that
+     * differ. A {@code null} {@code after} means the title was removed and its effects are cleared. Must run
+     * on the main thread.
+     */
+    void reconcileTitle(UUID uuid, TitleDefinition before, TitleDefinition after) {
+        PlayerProfile profile = profiles.get(uuid);
+        if (profile == null || !profile.titles().getEquippedTitle().filter(before.getId()::equals).isPresent()) {
+            equippedIndex.remove(before.getId(), uuid);
+            return;
+        }
+        String source = "title:" + before.getId();
+        if (after == null) {
+            clearEffects(uuid, before.getEffects(), source, List.of());
+            equippedIndex.remove(before.getId(), uuid);
+            return;
+        }
+        applyEffectDelta(uuid, source, before.getEffects(), after.getEffects());
+    }
+
+    /**
+     * Same as {@link #reconcileTitle} for an active set. A removed set is deactivated.
+     */
+    void reconcileSet(UUID uuid, SetDefinition before, SetDefinition after) {
+        PlayerProfile profile = profiles.get(uuid);
+        PlayerTitleState state = profile == null ? null : profile.titles();
+        if (state == null || !state.getActiveSets().contains(before.getId())) {
+            activeSetIndex.remove(before.getId(), uuid);
+            return;
+        }
+        if (after == null) {
+            clearSetEffects(uuid, before);
+            EventDispatcher.dispatch(plugin, new TitleSetDeactivateEvent(uuid, before, false));
+            state.deactivateSet(before.getId());
+            activeSetIndex.remove(before.getId(), uuid);
+            return;
+        }
+        applyEffectDelta(uuid, "set:" + before.getId(), setEffects(before), setEffects(after));
+    }
+
+    /**
+     * Re-evaluates set membership of a cached player against the current set index after sets.yml changed.
+     */
+    void reconcileSets(UUID uuid) {
+        PlayerProfile profile = profiles.get(uuid);
+        if (profile != null) {
+            recalculateSets(uuid, profile.titles());
+        }
+    }
+
+    /**
+     * Forgets the player in the holder indexes once their profile leaves the cache.
+     */
+    public void release(UUID uuid) {
+        equippedIndex.removeAll(uuid);
+        activeSetIndex.removeAll(uuid);
+    }
+
+    /**
+     * @return number of players tracked in the equipped-title index
+     */
+    public int indexedPlayers() {
+        return equippedIndex.size();
     }
 
     public PlayerTitleState getOrLoadSync(UUID uuid) {
-        return cache.computeIfAbsent(uuid, key -> {
-            PlayerTitleState state = new PlayerTitleState();
-            storage.loadPlayerTitles(uuid, state);
-            return state;
-        });
+        return profiles.getOrLoadSync(uuid).titles();
     }
 
+    /**
+     * Grants a title, waiting for the grant event. On the main thread this completes immediately; worker
+     * threads should use {@link #grantTitleAsync(UUID, String)} instead of parking on the main thread.
+     */
     public boolean grantTitle(UUID uuid, String titleId) {
+        return grantTitleAsync(uuid, titleId).join();
+    }
+
+    /**
+     * Fire-and-forget variant of {@link #grantTitleAsync(UUID, String)} for requirement handlers that do not
+     * wait for the result; a failed grant is logged instead of being lost with the discarded future.
+     */
+    public void requestGrant(UUID uuid, String titleId) {
+        grantTitleAsync(uuid, titleId).exceptionally(ex -> {
+            plugin.getLogger().log(Level.SEVERE, "Failed to grant title " + titleId + " to " + uuid, ex);
+            return false;
+        });
+    }
+
+    /**
+     * Grants a title without blocking. The grant event is fired on the main thread and the grant is applied
+     * in its callback.
+     */
+    public CompletableFuture<Boolean> grantTitleAsync(UUID uuid, String titleId) {
         TitleDefinition definition = titleRegistry.get(titleId);
         if (definition == null) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         PlayerTitleState state = getOrLoadSync(uuid);
         if (state.isOwned(titleId)) {
-            return false;
-        }
-        TitleGrantEvent event = EventDispatcher.dispatch(plugin, new TitleGrantEvent(uuid, definition, !Bukkit.isPrimaryThread()));
-        if (event.isCancelled()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
-        state.addOwnedTitle(titleId);
-        executor.execute(() -> storage.upsertPlayerTitle(uuid, titleId, false));
-        Bukkit.getScheduler().runTask(plugin, () -> recalculateSets(uuid, state));
-        sendMessage(uuid, "§a새로운 칭호를 획득했습니다: §f" + definition.getDisplay());
-        return true;
+        return EventDispatcher.dispatchAsync(plugin, new TitleGrantEvent(uuid, definition, false))
+                .thenApply(event -> {
+                    // Another grant of the same title may have completed while the event was queued.
+                    if (event.isCancelled() || state.isOwned(titleId)) {
+                        return false;
+                    }
+                    state.addOwnedTitle(titleId);
+                    executor.execute(PriorityExecutor.Lane.INTERACTIVE, () -> storage.upsertPlayerTitle(uuid, titleId));
+                    dropRetainedIfOffline(uuid);
+                    Bukkit.getScheduler().runTask(plugin, () -> recalculateSets(uuid, state, titleId));
+                    sendMessage(uuid, "§a새로운 칭호를 획득했습니다: §f" + definition.getDisplay());
+                    return true;
+                });
     }
 
     public boolean equipTitle(UUID uuid, String titleId) {
@@ -114,18 +226,18 @@ public final class TitleService {
         }
         Optional<String> previous = state.getEquippedTitle();
         TitleEquipEvent event = EventDispatcher.dispatch(plugin,
-                new TitleEquipEvent(uuid, definition, previous.orElse(null), !Bukkit.isPrimaryThread()));
+                new TitleEquipEvent(uuid, definition, previous.orElse(null), false));
         if (event.isCancelled()) {
             return false;
         }
 
         previous.flatMap(id -> Optional.ofNullable(titleRegistry.get(id))).ifPresent(def -> clearEffects(uuid, def, "title:" + def.getId()));
+        previous.ifPresent(id -> equippedIndex.remove(id, uuid));
 
         state.setEquippedTitle(titleId);
-        executor.execute(() -> {
-            storage.clearEquipped(uuid);
-            storage.upsertPlayerTitle(uuid, titleId, true);
-        });
+        equippedIndex.add(titleId, uuid);
+        equipBuffer.set(uuid, titleId);
+        dropRetainedIfOffline(uuid);
         Bukkit.getScheduler().runTask(plugin, () -> applyEffects(uuid, definition, true));
         sendMessage(uuid, "§e칭호를 장착했습니다: §f" + definition.getDisplay());
         return true;
@@ -140,14 +252,16 @@ public final class TitleService {
         TitleDefinition current = titleRegistry.get(previous.get());
         if (current != null) {
             TitleUnequipEvent event = EventDispatcher.dispatch(plugin,
-                    new TitleUnequipEvent(uuid, current, !Bukkit.isPrimaryThread()));
+                    new TitleUnequipEvent(uuid, current, false));
             if (event.isCancelled()) {
                 return false;
             }
             clearEffects(uuid, current, "title:" + current.getId());
         }
         state.setEquippedTitle(null);
-        executor.execute(() -> storage.clearEquipped(uuid));
+        equippedIndex.remove(previous.get(), uuid);
+        equipBuffer.set(uuid, null);
+        dropRetainedIfOffline(uuid);
         sendMessage(uuid, "§c칭호를 해제했습니다.");
         return true;
     }
@@ -160,7 +274,7 @@ public final class TitleService {
         TitleDefinition definition = titleRegistry.get(titleId);
         if (definition != null) {
             TitleRevokeEvent event = EventDispatcher.dispatch(plugin,
-                    new TitleRevokeEvent(uuid, definition, !Bukkit.isPrimaryThread()));
+                    new TitleRevokeEvent(uuid, definition, false));
             if (event.isCancelled()) {
                 return false;
             }
@@ -170,22 +284,32 @@ public final class TitleService {
                 clearEffects(uuid, definition, "title:" + definition.getId());
             }
             state.setEquippedTitle(null);
-            executor.execute(() -> storage.clearEquipped(uuid));
+            equippedIndex.remove(titleId, uuid);
+            equipBuffer.set(uuid, null);
         }
-        executor.execute(() -> storage.deletePlayerTitle(uuid, titleId));
-        Bukkit.getScheduler().runTask(plugin, () -> recalculateSets(uuid, state));
+        executor.execute(PriorityExecutor.Lane.INTERACTIVE, () -> storage.deletePlayerTitle(uuid, titleId));
+        dropRetainedIfOffline(uuid);
+        Bukkit.getScheduler().runTask(plugin, () -> recalculateSets(uuid, state, titleId));
         sendMessage(uuid, "§c칭호가 회수되었습니다: " + titleId);
         return true;
     }
 
     public Optional<String> getEquippedTitle(UUID uuid) {
-        PlayerTitleState state = cache.get(uuid);
-        return state == null ? Optional.empty() : state.getEquippedTitle();
+        PlayerProfile profile = profiles.get(uuid);
+        return profile == null ? Optional.empty() : profile.titles().getEquippedTitle();
+    }
+
+    /**
+     * Ownership test by title ordinal for cached players; uncached players own nothing.
+     */
+    public boolean isOwned(UUID uuid, TitleDefinition definition) {
+        PlayerProfile profile = profiles.get(uuid);
+        return profile != null && profile.titles().isOwned(definition.getOrdinal());
     }
 
     public Set<String> getOwnedTitles(UUID uuid) {
-        PlayerTitleState state = cache.get(uuid);
-        return state == null ? Collections.emptySet() : state.getOwnedTitles();
+        PlayerProfile profile = profiles.get(uuid);
+        return profile == null ? Collections.emptySet() : profile.titles().getOwnedTitles();
     }
 
     private void applyEffects(UUID uuid, TitleDefinition definition, boolean removeExisting) {
@@ -193,7 +317,11 @@ public final class TitleService {
         if (removeExisting) {
             clearEffects(uuid, definition, source);
         }
-        for (TitleEffect effect : definition.getEffects()) {
+        applyEffects(uuid, definition.getEffects(), source);
+    }
+
+    private void applyEffects(UUID uuid, List<TitleEffect> effects, String source) {
+        for (TitleEffect effect : effects) {
             switch (effect.getType()) {
                 case STAT_MOD -> statService.addModifier(uuid, effect.getStatId(), effect.getValue(), source, effect.getStatOperation(), null);
                 case POTION -> applyPotion(uuid, effect.getPotionEffectType(), effect.getPotionLevel());
@@ -211,7 +339,6 @@ public final class TitleService {
                 }
             }
         }
-        recalculateSets(uuid, getOrLoadSync(uuid));
     }
 
     private void applyPotion(UUID uuid, PotionEffectType type, int level) {
@@ -224,7 +351,17 @@ public final class TitleService {
     }
 
     private void clearEffects(UUID uuid, TitleDefinition definition, String source) {
-        for (TitleEffect effect : definition.getEffects()) {
+        clearEffects(uuid, definition.getEffects(), source, List.of());
+    }
+
+    /**
+     * Clears effects, skipping any whose stat, potion or attribute is still provided by one of {@code kept}.
+     */
+    private void clearEffects(UUID uuid, List<TitleEffect> effects, String source, List<TitleEffect> kept) {
+        for (TitleEffect effect : effects) {
+            if (kept.stream().anyMatch(other -> sameTarget(effect, other))) {
+                continue;
+            }
             switch (effect.getType()) {
                 case STAT_MOD -> statService.removeModifier(uuid, effect.getStatId(), source);
                 case POTION -> {
@@ -246,41 +383,90 @@ public final class TitleService {
         }
     }
 
+    /**
+     * Clears the effects only in {@code before} and applies the ones only in {@code after}; effects present in
+     * both are left untouched.
+     */
+    private void applyEffectDelta(UUID uuid, String source, List<TitleEffect> before, List<TitleEffect> after) {
+        List<TitleEffect> removed = new ArrayList<>(before);
+        removed.removeAll(after);
+        List<TitleEffect> added = new ArrayList<>(after);
+        added.removeAll(before);
+        List<TitleEffect> kept = new ArrayList<>(before);
+        kept.retainAll(after);
+        clearEffects(uuid, removed, source, kept);
+        applyEffects(uuid, added, source);
+    }
+
+    private static boolean sameTarget(TitleEffect effect, TitleEffect other) {
+        if (effect.getType() != other.getType()) {
+            return false;
+        }
+        return switch (effect.getType()) {
+            case STAT_MOD -> Objects.equals(effect.getStatId(), other.getStatId());
+            case POTION -> Objects.equals(effect.getPotionEffectType(), other.getPotionEffectType());
+            case ATTRIBUTE -> Objects.equals(effect.getAttribute(), other.getAttribute());
+            default -> false;
+        };
+    }
+
+    /**
+     * @return the set effects that are actually applied, see {@link #applySetEffects}
+     */
+    private static List<TitleEffect> setEffects(SetDefinition definition) {
+        return definition.getEffects().stream()
+                .filter(effect -> effect.getType() == TitleEffect.Type.STAT_MOD || effect.getType() == TitleEffect.Type.POTION)
+                .toList();
+    }
+
+    /**
+     * Re-evaluates every set the player has started or has active, e.g. after a join or a sets.yml reload.
+     */
     private void recalculateSets(UUID uuid, PlayerTitleState state) {
-        Set<String> newlyActive = new HashSet<>();
-        for (SetDefinition definition : setRegistry.all()) {
-            if (state.getOwnedTitles().containsAll(definition.getMembers())) {
-                newlyActive.add(definition.getId());
-            }
+        state.bindSetIndex(setRegistry.index());
+        Set<String> candidates = new LinkedHashSet<>(state.getStartedSets());
+        candidates.addAll(state.getActiveSets());
+        candidates.addAll(setRegistry.index().unconditionalSets());
+        for (String setId : candidates) {
+            updateSet(uuid, state, setId);
         }
-        Set<String> previous = activeSets.computeIfAbsent(uuid, key -> new HashSet<>());
-        Set<String> removed = new HashSet<>(previous);
-        removed.removeAll(newlyActive);
-        Set<String> added = new HashSet<>(newlyActive);
-        added.removeAll(previous);
-
-        for (String setId : removed) {
-            SetDefinition definition = setRegistry.get(setId);
-            if (definition == null) {
-                continue;
-            }
-            clearSetEffects(uuid, definition);
-            EventDispatcher.dispatch(plugin, new TitleSetDeactivateEvent(uuid, definition, !Bukkit.isPrimaryThread()));
-            previous.remove(setId);
+    }
+
+    /**
+     * Re-evaluates only the sets containing a title that was just granted or revoked.
+     */
+    private void recalculateSets(UUID uuid, PlayerTitleState state, String titleId) {
+        SetIndex index = setRegistry.index();
+        if (state.bindSetIndex(index)) {
+            recalculateSets(uuid, state);
+            return;
         }
+        for (String setId : index.setsContaining(titleId)) {
+            updateSet(uuid, state, setId);
+        }
+    }
 
-        for (String setId : added) {
-            SetDefinition definition = setRegistry.get(setId);
-            if (definition == null) {
-                continue;
-            }
+    private void updateSet(UUID uuid, PlayerTitleState state, String setId) {
+        SetDefinition definition = setRegistry.get(setId);
+        if (definition == null) {
+            return;
+        }
+        boolean complete = state.isSetComplete(setId);
+        boolean active = state.getActiveSets().contains(setId);
+        if (active && !complete) {
+            clearSetEffects(uuid, definition);
+            EventDispatcher.dispatch(plugin, new TitleSetDeactivateEvent(uuid, definition, false));
+            state.deactivateSet(setId);
+            activeSetIndex.remove(setId, uuid);
+        } else if (complete && !active) {
             TitleSetActivateEvent event = EventDispatcher.dispatch(plugin,
-                    new TitleSetActivateEvent(uuid, definition, !Bukkit.isPrimaryThread()));
+                    new TitleSetActivateEvent(uuid, definition, false));
             if (event.isCancelled()) {
-                continue;
+                return;
             }
             applySetEffects(uuid, definition);
-            previous.add(setId);
+            state.activateSet(setId);
+            activeSetIndex.add(setId, uuid);
         }
     }
 
@@ -310,9 +496,20 @@ public final class TitleService {
     }
 
     private void sendMessage(UUID uuid, String message) {
-        Player player = Bukkit.getPlayer(uuid);
-        if (player != null && message != null) {
-            Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage(message));
+        messages.send(uuid, message);
+    }
+
+    /**
+     * An offline player may still be retained on this node with titles from before the write; drop that copy
+     * so a rejoin loads the change.
+     */
+    private void dropRetainedIfOffline(UUID uuid) {
+        if (profileService != null && Bukkit.getPlayer(uuid) == null) {
+            profileService.invalidateRetained(uuid);
         }
     }
+
+    public void setProfileService(PlayerProfileService profileService) {
+        this.profileService = profileService;
+    }
 }
@@ -7,38 +7,49 @@ import wiki.creeper.creeperPrefixSystem.event.WeeklyRankEvaluateEvent;
 import wiki.creeper.creeperPrefixSystem.redis.RedisBridge;
 import wiki.creeper.creeperPrefixSystem.storage.MySqlStorage;
 import wiki.creeper.creeperPrefixSystem.util.EventDispatcher;
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
 import java.time.temporal.WeekFields;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Tracks weekly activity metrics and computes leaderboard standings.
+ * Tracks weekly activity metrics and computes leaderboard standings. Metric increments are summed in
+ * memory and drained to MySQL as one batch by {@link #flushMetrics()}.
  */
 public final class WeeklyRankingService {
 
     private static final DateTimeFormatter WEEK_FORMATTER = DateTimeFormatter.ofPattern("YYYYww");
+    private static final int METRIC_STRIPES = 16;
 
     private final Plugin plugin;
     private final MySqlStorage storage;
     private final RedisBridge redis;
-    private final ExecutorService executor;
+    private final PriorityExecutor executor;
     private final TitlePlusConfiguration configuration;
     private final String defaultMetric;
 
     private volatile String weekKey = currentWeekKey();
+    private volatile long weekEndsAt = nextWeekStart();
     private final Map<String, List<WeeklyStanding>> cache = new ConcurrentHashMap<>();
     private final Set<UUID> weeklyTop3 = ConcurrentHashMap.newKeySet();
 
+    private final MetricStripe[] stripes = new MetricStripe[METRIC_STRIPES];
+    private final Object flushLock = new Object();
+    private final AtomicLong flushedMetricRows = new AtomicLong();
+    private volatile long lastMetricFlushAt;
+
     public WeeklyRankingService(Plugin plugin,
                                 MySqlStorage storage,
                                 RedisBridge redis,
-                                ExecutorService executor,
+                                PriorityExecutor executor,
                                 TitlePlusConfiguration configuration) {
         this.plugin = plugin;
         this.storage = storage;
@@ -46,35 +57,94 @@ public final class WeeklyRankingService {
         this.executor = executor;
         this.configuration = configuration;
         this.defaultMetric = configuration.defaultWeeklyMetric();
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new MetricStripe();
+        }
     }
 
-    public void refreshWeekKey() {
+    public synchronized void refreshWeekKey() {
         weekKey = currentWeekKey();
+        weekEndsAt = nextWeekStart();
     }
 
+    /**
+     * Adds {@code delta} to the player's metric for the week that is current right now. The value is only
+     * held in memory until the next {@link #flushMetrics()}.
+     */
     public void incrementMetric(UUID uuid, String metric, long delta) {
         if (delta == 0) {
             return;
         }
-        String currentWeek = weekKey;
-        executor.execute(() -> storage.incrementWeeklyMetric(currentWeek, uuid, metric, delta));
+        MetricKey key = new MetricKey(activeWeekKey(), uuid, metric);
+        stripes[Math.floorMod(key.hashCode(), stripes.length)].add(key, delta);
+    }
+
+    /**
+     * Drains all aggregated deltas and writes them in one batch. Each delta keeps the week key captured when
+     * it was recorded, so increments from just before a week boundary still land in the previous week.
+     *
+     * @return number of rows written
+     */
+    public int flushMetrics() {
+        synchronized (flushLock) {
+            List<MySqlStorage.WeeklyMetricWrite> batch = new ArrayList<>();
+            for (MetricStripe stripe : stripes) {
+                stripe.drain().forEach((key, total) -> {
+                    if (total[0] != 0) {
+                        batch.add(new MySqlStorage.WeeklyMetricWrite(key.weekKey(), key.uuid(), key.metric(), total[0]));
+                    }
+                });
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            if (!storage.incrementWeeklyMetrics(batch)) {
+                for (MySqlStorage.WeeklyMetricWrite write : batch) {
+                    MetricKey key = new MetricKey(write.weekKey(), write.uuid(), write.metric());
+                    stripes[Math.floorMod(key.hashCode(), stripes.length)].add(key, write.delta());
+                }
+                return 0;
+            }
+            lastMetricFlushAt = System.currentTimeMillis();
+            flushedMetricRows.addAndGet(batch.size());
+            return batch.size();
+        }
+    }
+
+    public int pendingMetricRows() {
+        int total = 0;
+        for (MetricStripe stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+
+    public long flushedMetricRows() {
+        return flushedMetricRows.get();
+    }
+
+    public long lastMetricFlushAt() {
+        return lastMetricFlushAt;
     }
 
     public CompletableFuture<List<WeeklyStanding>> evaluate(String metric) {
-        String currentWeek = weekKey;
+        String currentWeek = activeWeekKey();
         return CompletableFuture.supplyAsync(() -> {
-            List<WeeklyStanding> standings = storage.loadWeeklyStandings(currentWeek, metric, 10);
-            WeeklyRankEvaluateEvent event = EventDispatcher.dispatch(plugin,
-                    new WeeklyRankEvaluateEvent(metric, currentWeek, new ArrayList<>(standings), !org.bukkit.Bukkit.isPrimaryThread()));
-            List<WeeklyStanding> processed = new ArrayList<>(event.getStandings());
-            cache.put(metric, Collections.unmodifiableList(processed));
-            weeklyTop3.clear();
-            processed.stream().limit(3).forEach(entry -> weeklyTop3.add(entry.getPlayerId()));
-            if (configuration.redis().enabled()) {
-                redis.publishBroadcast("weekly:" + metric + ":" + currentWeek);
-            }
-            return Collections.unmodifiableList(processed);
-        }, executor);
+                    flushMetrics();
+                    return storage.loadWeeklyStandings(currentWeek, metric, 10);
+                }, executor.lane(PriorityExecutor.Lane.BACKGROUND))
+                .thenCompose(standings -> EventDispatcher.dispatchAsync(plugin,
+                        new WeeklyRankEvaluateEvent(metric, currentWeek, new ArrayList<>(standings), false)))
+                .thenApplyAsync(event -> {
+                    List<WeeklyStanding> processed = new ArrayList<>(event.getStandings());
+                    cache.put(metric, Collections.unmodifiableList(processed));
+                    weeklyTop3.clear();
+                    processed.stream().limit(3).forEach(entry -> weeklyTop3.add(entry.getPlayerId()));
+                    if (configuration.redis().enabled()) {
+                        redis.publishBroadcast("weekly:" + metric + ":" + currentWeek);
+                    }
+                    return Collections.unmodifiableList(processed);
+                }, executor.lane(PriorityExecutor.Lane.BACKGROUND));
     }
 
     public String getDefaultMetric() {
@@ -93,10 +163,51 @@ public final class WeeklyRankingService {
         return cache.keySet();
     }
 
+    private String activeWeekKey() {
+        if (System.currentTimeMillis() >= weekEndsAt) {
+            refreshWeekKey();
+        }
+        return weekKey;
+    }
+
     private String currentWeekKey() {
         LocalDate date = LocalDate.now(ZoneOffset.UTC);
         WeekFields fields = WeekFields.ISO;
         int week = date.get(fields.weekOfWeekBasedYear());
         return String.format(Locale.ROOT, "%d%02d", date.getYear(), week);
     }
+
+    private long nextWeekStart() {
+        return LocalDate.now(ZoneOffset.UTC)
+                .with(TemporalAdjusters.next(DayOfWeek.MONDAY))
+                .atStartOfDay(ZoneOffset.UTC)
+                .toInstant()
+                .toEpochMilli();
+    }
+
+    private record MetricKey(String weekKey, UUID uuid, String metric) {
+    }
+
+    /**
+     * One cell of the striped aggregator. Writers only contend with other keys hashing to the same stripe,
+     * and draining swaps the map out so no increment can be lost between read and reset.
+     */
+    private static final class MetricStripe {
+
+        private Map<MetricKey, long[]> totals = new HashMap<>();
+
+        synchronized void add(MetricKey key, long delta) {
+            totals.computeIfAbsent(key, ignored -> new long[1])[0] += delta;
+        }
+
+        synchronized Map<MetricKey, long[]> drain() {
+            Map<MetricKey, long[]> drained = totals;
+            totals = new HashMap<>();
+            return drained;
+        }
+
+        synchronized int size() {
+            return totals.size();
+        }
+    }
 }
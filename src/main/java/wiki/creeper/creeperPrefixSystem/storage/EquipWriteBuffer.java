@@ -0,0 +1,117 @@
+package wiki.creeper.creeperPrefixSystem.storage;
+
+import wiki.creeper.creeperPrefixSystem.util.PriorityExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for {@code player_equipped}. Only the latest equip of each player is kept, so a burst of
+ * clicks in the title GUI results in one row write. A single drain task runs at a time, which keeps the
+ * writes of a player in order.
+ */
+public final class EquipWriteBuffer {
+
+    private final MySqlStorage storage;
+    private final PriorityExecutor executor;
+    private final Map<UUID, PendingEquip> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicLong queuedEquips = new AtomicLong();
+    private final AtomicLong writtenEquips = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    public EquipWriteBuffer(MySqlStorage storage, PriorityExecutor executor) {
+        this.storage = storage;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues the player's equipped title, replacing any equip that has not been written yet.
+     *
+     * @param titleId the equipped title or {@code null} when the player unequipped
+     */
+    public void set(UUID uuid, String titleId) {
+        queuedEquips.incrementAndGet();
+        pending.put(uuid, new PendingEquip(titleId));
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(PriorityExecutor.Lane.INTERACTIVE, this::drain);
+            } catch (RejectedExecutionException ex) {
+                // Shutting down: the equip stays pending for the shutdown flush.
+                drainScheduled.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        // Cleared before flushing: an equip queued during the write schedules the next drain.
+        drainScheduled.set(false);
+        flush();
+    }
+
+    /**
+     * Writes every pending equip in one transaction. Failed rows are re-queued unless a newer equip for the
+     * same player arrived in the meantime.
+     *
+     * @return number of rows written
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<MySqlStorage.EquippedWrite> batch = new ArrayList<>();
+            List<PendingEquip> taken = new ArrayList<>();
+            for (UUID uuid : pending.keySet()) {
+                PendingEquip equip = pending.remove(uuid);
+                if (equip != null) {
+                    batch.add(new MySqlStorage.EquippedWrite(uuid, equip.titleId()));
+                    taken.add(equip);
+                }
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            if (!storage.writeEquipped(batch)) {
+                failedFlushes.incrementAndGet();
+                for (int i = 0; i < batch.size(); i++) {
+                    pending.putIfAbsent(batch.get(i).uuid(), taken.get(i));
+                }
+                return 0;
+            }
+            writtenEquips.addAndGet(batch.size());
+            return batch.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int pendingRows() {
+        return pending.size();
+    }
+
+    /**
+     * @return equips requested since startup, including those superseded before being written
+     */
+    public long queuedEquips() {
+        return queuedEquips.get();
+    }
+
+    public long writtenEquips() {
+        return writtenEquips.get();
+    }
+
+    public long failedFlushes() {
+        return failedFlushes.get();
+    }
+
+    private record PendingEquip(String titleId) {
+    }
+}
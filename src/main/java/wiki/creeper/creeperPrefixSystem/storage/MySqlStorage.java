@@ -5,7 +5,11 @@ import com.zaxxer.hikari.HikariDataSource;
 import org.bukkit.Material;
 import wiki.creeper.creeperPrefixSystem.config.StorageConfig;
 import wiki.creeper.creeperPrefixSystem.data.achievement.AchievementCompletion;
+import wiki.creeper.creeperPrefixSystem.data.achievement.PlayerAchievementState;
 import wiki.creeper.creeperPrefixSystem.data.collection.CollectionEntry;
+import wiki.creeper.creeperPrefixSystem.data.collection.PlayerCollectionState;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProfileData;
+import wiki.creeper.creeperPrefixSystem.data.player.PlayerProgressState;
 import wiki.creeper.creeperPrefixSystem.data.player.PlayerStatState;
 import wiki.creeper.creeperPrefixSystem.data.player.PlayerTitleState;
 import wiki.creeper.creeperPrefixSystem.data.stat.StatModifier;
@@ -14,7 +18,13 @@ import wiki.creeper.creeperPrefixSystem.data.season.SeasonSnapshot;
 import wiki.creeper.creeperPrefixSystem.data.season.SeasonState;
 import wiki.creeper.creeperPrefixSystem.util.UuidUtil;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.sql.*;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.logging.Level;
@@ -25,9 +35,23 @@ import java.util.logging.Logger;
  */
 public final class MySqlStorage implements AutoCloseable {
 
+    private static final String TITLES_SQL = "SELECT t.title_id, e.uuid IS NOT NULL AS equipped FROM player_titles t " +
+            "LEFT JOIN player_equipped e ON e.uuid = t.uuid AND e.title_id = t.title_id WHERE t.uuid = ?";
+    private static final String BASE_STATS_SQL = "SELECT stat_id, base_value FROM player_stats WHERE uuid = ?";
+    private static final String MODIFIERS_SQL = "SELECT stat_id, source_id, op, value, expire_at FROM stat_modifiers WHERE uuid = ?";
+    private static final String PROGRESS_SQL = "SELECT title_id, progress FROM title_progress WHERE uuid = ?";
+    private static final String COLLECTION_SQL = "SELECT entry_id, material, registered_at, player_rank FROM collection_entries WHERE uuid = ? ORDER BY player_rank ASC";
+    private static final String ACHIEVEMENTS_SQL = "SELECT completion_id, achievement_id, completed_at FROM achievement_completions WHERE uuid = ? ORDER BY completed_at ASC";
+
+    /**
+     * Rank returned by the insert methods when the row was journaled; the real rank is assigned on replay.
+     */
+    public static final long RANK_PENDING = -1L;
+
     private final Logger logger;
     private final StorageConfig config;
     private HikariDataSource dataSource;
+    private volatile WriteJournal journal;
 
     public MySqlStorage(Logger logger, StorageConfig config) {
         this.logger = logger;
@@ -35,17 +59,31 @@ public final class MySqlStorage implements AutoCloseable {
     }
 
     public void init() throws SQLException {
+        dataSource = openPool("TitlePlus-Hikari", config.maximumPoolSize(), config.minimumIdle());
+        createSchema();
+    }
+
+    /**
+     * Opens a separate storage with its own small pool against the same database, for diagnostics that must
+     * not take connections from live traffic. The schema is left alone; the caller closes the storage.
+     */
+    public static MySqlStorage openSeparate(Logger logger, StorageConfig config, String poolName, int poolSize) {
+        MySqlStorage storage = new MySqlStorage(logger, config);
+        storage.dataSource = storage.openPool(poolName, Math.max(1, poolSize), 0);
+        return storage;
+    }
+
+    private HikariDataSource openPool(String poolName, int maximumPoolSize, int minimumIdle) {
         HikariConfig hikari = new HikariConfig();
-        hikari.setJdbcUrl("jdbc:mysql://" + config.host() + ":" + config.port() + "/" + config.database() + "?useSSL=false&serverTimezone=UTC");
+        hikari.setJdbcUrl("jdbc:mysql://" + config.host() + ":" + config.port() + "/" + config.database() + "?useSSL=false&serverTimezone=UTC&allowMultiQueries=true");
         hikari.setUsername(config.username());
         hikari.setPassword(config.password());
-        hikari.setMaximumPoolSize(config.maximumPoolSize());
-        hikari.setMinimumIdle(config.minimumIdle());
+        hikari.setMaximumPoolSize(maximumPoolSize);
+        hikari.setMinimumIdle(minimumIdle);
         hikari.setConnectionTimeout(config.connectionTimeout());
-        hikari.setPoolName("TitlePlus-Hikari");
+        hikari.setPoolName(poolName);
         hikari.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource = new HikariDataSource(hikari);
-        createSchema();
+        return new HikariDataSource(hikari);
     }
 
     private void createSchema() throws SQLException {
@@ -77,6 +115,12 @@ public final class MySqlStorage implements AutoCloseable {
                     "INDEX idx_player_titles_uuid(uuid)" +
                     ")");
 
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS player_equipped (" +
+                    "uuid BINARY(16) PRIMARY KEY," +
+                    "title_id VARCHAR(64) NOT NULL," +
+                    "updated_at DATETIME" +
+                    ")");
+
             statement.executeUpdate("CREATE TABLE IF NOT EXISTS collection_entries (" +
                     "entry_id BIGINT PRIMARY KEY AUTO_INCREMENT," +
                     "uuid BINARY(16)," +
@@ -154,93 +198,226 @@ public final class MySqlStorage implements AutoCloseable {
                     "UNIQUE KEY uq_achievement_player(uuid, achievement_id)," +
                     "INDEX idx_achievement_uuid(uuid)" +
                     ")");
+
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS journal_applied (" +
+                    "journal_id CHAR(36)," +
+                    "seq BIGINT," +
+                    "applied_at DATETIME," +
+                    "PRIMARY KEY(journal_id, seq)" +
+                    ")");
         }
+        migrateEquippedTitles();
     }
 
-    public void loadPlayerTitles(UUID uuid, PlayerTitleState state) {
-        String sql = "SELECT title_id, equipped FROM player_titles WHERE uuid = ?";
+    /**
+     * Moves equipped flags left in {@code player_titles} by older versions into {@code player_equipped}. The
+     * flags are cleared in the same transaction, so this is a no-op once every row has been moved.
+     */
+    private void migrateEquippedTitles() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                int moved = statement.executeUpdate("INSERT IGNORE INTO player_equipped(uuid, title_id, updated_at) " +
+                        "SELECT uuid, title_id, NOW() FROM player_titles WHERE equipped = 1");
+                statement.executeUpdate("UPDATE player_titles SET equipped = 0 WHERE equipped = 1");
+                connection.commit();
+                if (moved > 0) {
+                    logger.info("Migrated " + moved + " equipped titles to player_equipped");
+                }
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Loads everything a joining player needs on one pooled connection. The six selects are sent as a
+     * single multi-statement round trip and their result sets are read back in order.
+     */
+    public PlayerProfileData loadPlayerProfile(UUID uuid) {
+        PlayerTitleState titles = new PlayerTitleState();
+        PlayerStatState stats = new PlayerStatState();
+        PlayerProgressState progress = new PlayerProgressState();
+        PlayerCollectionState collection = new PlayerCollectionState();
+        PlayerAchievementState achievements = new PlayerAchievementState();
+        String sql = TITLES_SQL + ";" + BASE_STATS_SQL + ";" + MODIFIERS_SQL + ";" + PROGRESS_SQL + ";"
+                + COLLECTION_SQL + ";" + ACHIEVEMENTS_SQL;
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setBytes(1, UuidUtil.toBytes(uuid));
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    String titleId = rs.getString("title_id");
-                    state.addOwnedTitle(titleId);
-                    if (rs.getBoolean("equipped")) {
-                        state.setEquippedTitle(titleId);
+            byte[] key = UuidUtil.toBytes(uuid);
+            for (int i = 1; i <= 6; i++) {
+                ps.setBytes(i, key);
+            }
+            boolean hasResults = ps.execute();
+            int index = 0;
+            while (hasResults || ps.getUpdateCount() != -1) {
+                if (hasResults) {
+                    try (ResultSet rs = ps.getResultSet()) {
+                        switch (index) {
+                            case 0 -> readTitles(rs, titles);
+                            case 1 -> readBaseStats(rs, stats);
+                            case 2 -> readModifiers(rs, uuid, stats);
+                            case 3 -> readProgress(rs, progress);
+                            case 4 -> readCollectionEntries(rs).forEach(collection::addEntry);
+                            case 5 -> readAchievementCompletions(rs).forEach(achievements::addCompletion);
+                            default -> {
+                            }
+                        }
                     }
+                    index++;
                 }
+                hasResults = ps.getMoreResults();
             }
         } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to query player titles", ex);
+            logger.log(Level.SEVERE, "Failed to load player profile", ex);
         }
+        return new PlayerProfileData(titles, stats, progress, collection, achievements);
     }
 
-    public void upsertPlayerTitle(UUID uuid, String titleId, boolean equipped) {
-        String sql = "INSERT INTO player_titles(uuid, title_id, obtained_at, equipped) VALUES(?,?,NOW(),?) " +
-                "ON DUPLICATE KEY UPDATE equipped = VALUES(equipped)";
+    public void loadPlayerTitles(UUID uuid, PlayerTitleState state) {
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+             PreparedStatement ps = connection.prepareStatement(TITLES_SQL)) {
             ps.setBytes(1, UuidUtil.toBytes(uuid));
-            ps.setString(2, titleId);
-            ps.setBoolean(3, equipped);
-            ps.executeUpdate();
+            try (ResultSet rs = ps.executeQuery()) {
+                readTitles(rs, state);
+            }
         } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to upsert player title", ex);
+            logger.log(Level.SEVERE, "Failed to query player titles", ex);
         }
     }
 
-    public void clearEquipped(UUID uuid) {
-        String sql = "UPDATE player_titles SET equipped = 0 WHERE uuid = ?";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+    private void readTitles(ResultSet rs, PlayerTitleState state) throws SQLException {
+        while (rs.next()) {
+            String titleId = rs.getString("title_id");
+            state.addOwnedTitle(titleId);
+            if (rs.getBoolean("equipped")) {
+                state.setEquippedTitle(titleId);
+            }
+        }
+    }
+
+    public void upsertPlayerTitle(UUID uuid, String titleId) {
+        submit(JournalOp.GRANT_TITLE, out -> {
+            writeUuid(out, uuid);
+            out.writeUTF(titleId);
+        }, connection -> upsertPlayerTitle(connection, uuid, titleId), "Failed to upsert player title");
+    }
+
+    private static void upsertPlayerTitle(Connection connection, UUID uuid, String titleId) throws SQLException {
+        String sql = "INSERT IGNORE INTO player_titles(uuid, title_id, obtained_at, equipped) VALUES(?,?,NOW(),0)";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setBytes(1, UuidUtil.toBytes(uuid));
+            ps.setString(2, titleId);
             ps.executeUpdate();
-        } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to clear equipped title", ex);
+        }
+    }
+
+    /**
+     * Writes the equipped pointers of several players in one transaction. Each player is a single row upsert,
+     * or a delete when the write carries no title, so an equip can never leave a player without a title.
+     * A batch that cannot be written is journaled instead.
+     *
+     * @return {@code true} when the whole batch was committed or journaled
+     */
+    public boolean writeEquipped(Collection<EquippedWrite> writes) {
+        if (writes.isEmpty()) {
+            return true;
+        }
+        return submit(JournalOp.EQUIPPED, out -> {
+            out.writeInt(writes.size());
+            for (EquippedWrite write : writes) {
+                writeUuid(out, write.uuid());
+                out.writeBoolean(write.titleId() != null);
+                out.writeUTF(write.titleId() == null ? "" : write.titleId());
+            }
+        }, connection -> inTransaction(connection, () -> writeEquipped(connection, writes)), "Failed to write equipped titles");
+    }
+
+    private static void writeEquipped(Connection connection, Collection<EquippedWrite> writes) throws SQLException {
+        String upsertSql = "INSERT INTO player_equipped(uuid, title_id, updated_at) VALUES(?,?,NOW()) " +
+                "ON DUPLICATE KEY UPDATE title_id = VALUES(title_id), updated_at = VALUES(updated_at)";
+        String deleteSql = "DELETE FROM player_equipped WHERE uuid = ?";
+        try (PreparedStatement upsert = connection.prepareStatement(upsertSql);
+             PreparedStatement delete = connection.prepareStatement(deleteSql)) {
+            for (EquippedWrite write : writes) {
+                if (write.titleId() == null) {
+                    delete.setBytes(1, UuidUtil.toBytes(write.uuid()));
+                    delete.addBatch();
+                } else {
+                    upsert.setBytes(1, UuidUtil.toBytes(write.uuid()));
+                    upsert.setString(2, write.titleId());
+                    upsert.addBatch();
+                }
+            }
+            upsert.executeBatch();
+            delete.executeBatch();
         }
     }
 
     public void deletePlayerTitle(UUID uuid, String titleId) {
+        submit(JournalOp.REVOKE_TITLE, out -> {
+            writeUuid(out, uuid);
+            out.writeUTF(titleId);
+        }, connection -> deletePlayerTitle(connection, uuid, titleId), "Failed to delete player title");
+    }
+
+    private static void deletePlayerTitle(Connection connection, UUID uuid, String titleId) throws SQLException {
         String sql = "DELETE FROM player_titles WHERE uuid = ? AND title_id = ?";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setBytes(1, UuidUtil.toBytes(uuid));
             ps.setString(2, titleId);
             ps.executeUpdate();
-        } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to delete player title", ex);
         }
     }
 
     public List<CollectionEntry> loadCollectionEntries(UUID uuid) {
-        List<CollectionEntry> entries = new ArrayList<>();
-        String sql = "SELECT entry_id, material, registered_at, player_rank FROM collection_entries WHERE uuid = ? ORDER BY player_rank ASC";
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+             PreparedStatement ps = connection.prepareStatement(COLLECTION_SQL)) {
             ps.setBytes(1, UuidUtil.toBytes(uuid));
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    String materialName = rs.getString("material");
-                    Material material = Material.matchMaterial(materialName);
-                    if (material == null) {
-                        continue;
-                    }
-                    Timestamp timestamp = rs.getTimestamp("registered_at");
-                    Instant registeredAt = timestamp == null ? Instant.EPOCH : timestamp.toInstant();
-                    int playerRank = rs.getInt("player_rank");
-                    long globalRank = rs.getLong("entry_id");
-                    entries.add(new CollectionEntry(material, registeredAt, playerRank, globalRank));
-                }
+                return readCollectionEntries(rs);
             }
         } catch (SQLException ex) {
             logger.log(Level.SEVERE, "Failed to load collection entries", ex);
         }
+        return new ArrayList<>();
+    }
+
+    private List<CollectionEntry> readCollectionEntries(ResultSet rs) throws SQLException {
+        List<CollectionEntry> entries = new ArrayList<>();
+        while (rs.next()) {
+            String materialName = rs.getString("material");
+            Material material = Material.matchMaterial(materialName);
+            if (material == null) {
+                continue;
+            }
+            Timestamp timestamp = rs.getTimestamp("registered_at");
+            Instant registeredAt = timestamp == null ? Instant.EPOCH : timestamp.toInstant();
+            int playerRank = rs.getInt("player_rank");
+            long globalRank = rs.getLong("entry_id");
+            entries.add(new CollectionEntry(material, registeredAt, playerRank, globalRank));
+        }
         return entries;
     }
 
+    /**
+     * @return the entry's global rank, {@code 0} if it already existed, or {@link #RANK_PENDING} if it was
+     * journaled; its rank is then assigned on replay and shows up the next time the player's profile loads
+     */
     public long insertCollectionEntry(UUID uuid, CollectionEntry entry) {
         String sql = "INSERT INTO collection_entries(uuid, material, registered_at, player_rank) VALUES(?,?,?,?)";
+        JournalEncoder encoder = out -> {
+            writeUuid(out, uuid);
+            out.writeUTF(entry.getMaterial().name());
+            out.writeLong(entry.getRegisteredAt().toEpochMilli());
+            out.writeInt(entry.getPlayerRank());
+        };
+        if (journalBacklog()) {
+            return journal(JournalOp.COLLECTION_ENTRY, encoder) ? RANK_PENDING : 0L;
+        }
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setBytes(1, UuidUtil.toBytes(uuid));
@@ -256,34 +433,53 @@ public final class MySqlStorage implements AutoCloseable {
         } catch (SQLException ex) {
             if (!isDuplicate(ex)) {
                 logger.log(Level.SEVERE, "Failed to insert collection entry", ex);
+                if (journal(JournalOp.COLLECTION_ENTRY, encoder)) {
+                    return RANK_PENDING;
+                }
             }
         }
         return 0L;
     }
 
     public List<AchievementCompletion> loadAchievementCompletions(UUID uuid) {
-        List<AchievementCompletion> completions = new ArrayList<>();
-        String sql = "SELECT completion_id, achievement_id, completed_at FROM achievement_completions WHERE uuid = ? ORDER BY completed_at ASC";
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+             PreparedStatement ps = connection.prepareStatement(ACHIEVEMENTS_SQL)) {
             ps.setBytes(1, UuidUtil.toBytes(uuid));
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    String achievementId = rs.getString("achievement_id");
-                    Timestamp timestamp = rs.getTimestamp("completed_at");
-                    Instant completedAt = timestamp == null ? Instant.EPOCH : timestamp.toInstant();
-                    long globalRank = rs.getLong("completion_id");
-                    completions.add(new AchievementCompletion(achievementId, completedAt, globalRank));
-                }
+                return readAchievementCompletions(rs);
             }
         } catch (SQLException ex) {
             logger.log(Level.SEVERE, "Failed to load achievement completions", ex);
         }
+        return new ArrayList<>();
+    }
+
+    private List<AchievementCompletion> readAchievementCompletions(ResultSet rs) throws SQLException {
+        List<AchievementCompletion> completions = new ArrayList<>();
+        while (rs.next()) {
+            String achievementId = rs.getString("achievement_id");
+            Timestamp timestamp = rs.getTimestamp("completed_at");
+            Instant completedAt = timestamp == null ? Instant.EPOCH : timestamp.toInstant();
+            long globalRank = rs.getLong("completion_id");
+            completions.add(new AchievementCompletion(achievementId, completedAt, globalRank));
+        }
         return completions;
     }
 
+    /**
+     * @return the completion's global rank, {@code 0} if it already existed, or {@link #RANK_PENDING} if it was
+     * journaled; its rank is then assigned on replay and shows up the next time the player's profile loads
+     */
     public long insertAchievementCompletion(UUID uuid, AchievementCompletion completion) {
         String sql = "INSERT INTO achievement_completions(uuid, achievement_id, completed_at) VALUES(?,?,?)";
+        JournalEncoder encoder = out -> {
+            writeUuid(out, uuid);
+            out.writeUTF(completion.getAchievementId());
+            out.writeLong(completion.getCompletedAt().toEpochMilli());
+        };
+        if (journalBacklog()) {
+            return journal(JournalOp.ACHIEVEMENT, encoder) ? RANK_PENDING : 0L;
+        }
         try (Connection connection = dataSource.getConnection();
              PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setBytes(1, UuidUtil.toBytes(uuid));
@@ -298,90 +494,124 @@ public final class MySqlStorage implements AutoCloseable {
         } catch (SQLException ex) {
             if (!isDuplicate(ex)) {
                 logger.log(Level.SEVERE, "Failed to insert achievement completion", ex);
+                if (journal(JournalOp.ACHIEVEMENT, encoder)) {
+                    return RANK_PENDING;
+                }
             }
         }
         return 0L;
     }
 
     public void loadPlayerStats(UUID uuid, PlayerStatState stats) {
-        String baseSql = "SELECT stat_id, base_value FROM player_stats WHERE uuid = ?";
+        String sql = BASE_STATS_SQL + ";" + MODIFIERS_SQL;
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(baseSql)) {
-            ps.setBytes(1, UuidUtil.toBytes(uuid));
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    stats.setBaseValue(rs.getString("stat_id"), rs.getDouble("base_value"));
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            byte[] key = UuidUtil.toBytes(uuid);
+            ps.setBytes(1, key);
+            ps.setBytes(2, key);
+            ps.execute();
+            try (ResultSet rs = ps.getResultSet()) {
+                readBaseStats(rs, stats);
+            }
+            if (ps.getMoreResults()) {
+                try (ResultSet rs = ps.getResultSet()) {
+                    readModifiers(rs, uuid, stats);
                 }
             }
         } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to load base stats", ex);
+            logger.log(Level.SEVERE, "Failed to load player stats", ex);
         }
+    }
 
-        String modSql = "SELECT stat_id, source_id, op, value, expire_at FROM stat_modifiers WHERE uuid = ?";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(modSql)) {
-            ps.setBytes(1, UuidUtil.toBytes(uuid));
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    String statId = rs.getString("stat_id");
-                    String sourceId = rs.getString("source_id");
-                    StatModifier.Operation op = StatModifier.Operation.valueOf(rs.getString("op"));
-                    double value = rs.getDouble("value");
-                    long expireMillis = rs.getLong("expire_at");
-                    Instant expire = rs.wasNull() ? null : Instant.ofEpochMilli(expireMillis);
-                    stats.putModifier(new StatModifier(uuid, statId, sourceId, op, value, expire));
-                }
-            }
-        } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to load stat modifiers", ex);
+    private void readBaseStats(ResultSet rs, PlayerStatState stats) throws SQLException {
+        while (rs.next()) {
+            stats.setBaseValue(rs.getString("stat_id"), rs.getDouble("base_value"));
+        }
+    }
+
+    private void readModifiers(ResultSet rs, UUID uuid, PlayerStatState stats) throws SQLException {
+        while (rs.next()) {
+            String statId = rs.getString("stat_id");
+            String sourceId = rs.getString("source_id");
+            StatModifier.Operation op = StatModifier.Operation.valueOf(rs.getString("op"));
+            double value = rs.getDouble("value");
+            long expireMillis = rs.getLong("expire_at");
+            Instant expire = rs.wasNull() ? null : Instant.ofEpochMilli(expireMillis);
+            stats.putModifier(new StatModifier(uuid, statId, sourceId, op, value, expire));
         }
     }
 
     public void upsertStatModifier(StatModifier modifier) {
+        UUID uuid = modifier.getPlayerId();
+        String statId = modifier.getStatId();
+        String sourceId = modifier.getSourceId();
+        String op = modifier.getOperation().name();
+        double value = modifier.getValue();
+        Long expireAt = modifier.getExpireAt() == null ? null : modifier.getExpireAt().toEpochMilli();
+        submit(JournalOp.STAT_MODIFIER, out -> {
+            writeUuid(out, uuid);
+            out.writeUTF(statId);
+            out.writeUTF(sourceId);
+            out.writeUTF(op);
+            out.writeDouble(value);
+            out.writeBoolean(expireAt != null);
+            out.writeLong(expireAt == null ? 0L : expireAt);
+        }, connection -> upsertStatModifier(connection, uuid, statId, sourceId, op, value, expireAt), "Failed to upsert stat modifier");
+    }
+
+    private static void upsertStatModifier(Connection connection, UUID uuid, String statId, String sourceId, String op,
+                                           double value, Long expireAt) throws SQLException {
         String sql = "INSERT INTO stat_modifiers(uuid, stat_id, source_id, op, value, expire_at) VALUES(?,?,?,?,?,?) " +
                 "ON DUPLICATE KEY UPDATE op = VALUES(op), value = VALUES(value), expire_at = VALUES(expire_at)";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setBytes(1, UuidUtil.toBytes(modifier.getPlayerId()));
-            ps.setString(2, modifier.getStatId());
-            ps.setString(3, modifier.getSourceId());
-            ps.setString(4, modifier.getOperation().name());
-            ps.setDouble(5, modifier.getValue());
-            if (modifier.getExpireAt() == null) {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setBytes(1, UuidUtil.toBytes(uuid));
+            ps.setString(2, statId);
+            ps.setString(3, sourceId);
+            ps.setString(4, op);
+            ps.setDouble(5, value);
+            if (expireAt == null) {
                 ps.setNull(6, Types.BIGINT);
             } else {
-                ps.setLong(6, modifier.getExpireAt().toEpochMilli());
+                ps.setLong(6, expireAt);
             }
             ps.executeUpdate();
-        } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to upsert stat modifier", ex);
         }
     }
 
     public void removeStatModifier(UUID uuid, String statId, String sourceId) {
+        submit(JournalOp.STAT_MODIFIER_REMOVE, out -> {
+            writeUuid(out, uuid);
+            out.writeUTF(statId);
+            out.writeUTF(sourceId);
+        }, connection -> removeStatModifier(connection, uuid, statId, sourceId), "Failed to remove stat modifier");
+    }
+
+    private static void removeStatModifier(Connection connection, UUID uuid, String statId, String sourceId) throws SQLException {
         String sql = "DELETE FROM stat_modifiers WHERE uuid = ? AND stat_id = ? AND source_id = ?";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setBytes(1, UuidUtil.toBytes(uuid));
             ps.setString(2, statId);
             ps.setString(3, sourceId);
             ps.executeUpdate();
-        } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to remove stat modifier", ex);
         }
     }
 
     public void saveBaseStat(UUID uuid, String statId, double value) {
+        submit(JournalOp.BASE_STAT, out -> {
+            writeUuid(out, uuid);
+            out.writeUTF(statId);
+            out.writeDouble(value);
+        }, connection -> saveBaseStat(connection, uuid, statId, value), "Failed to store base stat");
+    }
+
+    private static void saveBaseStat(Connection connection, UUID uuid, String statId, double value) throws SQLException {
         String sql = "INSERT INTO player_stats(uuid, stat_id, base_value) VALUES(?,?,?) " +
                 "ON DUPLICATE KEY UPDATE base_value = VALUES(base_value)";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
             ps.setBytes(1, UuidUtil.toBytes(uuid));
             ps.setString(2, statId);
             ps.setDouble(3, value);
             ps.executeUpdate();
-        } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to store base stat", ex);
         }
     }
 
@@ -441,17 +671,42 @@ public final class MySqlStorage implements AutoCloseable {
     }
 
     public void incrementWeeklyMetric(String weekKey, UUID uuid, String metric, long delta) {
+        incrementWeeklyMetrics(List.of(new WeeklyMetricWrite(weekKey, uuid, metric, delta)));
+    }
+
+    /**
+     * Adds aggregated weekly metric deltas in a single batch on one connection. A batch that cannot be written
+     * is journaled instead.
+     *
+     * @return {@code true} when the whole batch was committed or journaled
+     */
+    public boolean incrementWeeklyMetrics(Collection<WeeklyMetricWrite> writes) {
+        if (writes.isEmpty()) {
+            return true;
+        }
+        return submit(JournalOp.WEEKLY_METRICS, out -> {
+            out.writeInt(writes.size());
+            for (WeeklyMetricWrite write : writes) {
+                out.writeUTF(write.weekKey());
+                writeUuid(out, write.uuid());
+                out.writeUTF(write.metric());
+                out.writeLong(write.delta());
+            }
+        }, connection -> inTransaction(connection, () -> incrementWeeklyMetrics(connection, writes)), "Failed to write weekly metric batch");
+    }
+
+    private static void incrementWeeklyMetrics(Connection connection, Collection<WeeklyMetricWrite> writes) throws SQLException {
         String sql = "INSERT INTO weekly_metrics(week_key, uuid, metric, value) VALUES(?,?,?,?) " +
                 "ON DUPLICATE KEY UPDATE value = value + VALUES(value)";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, weekKey);
-            ps.setBytes(2, UuidUtil.toBytes(uuid));
-            ps.setString(3, metric);
-            ps.setLong(4, delta);
-            ps.executeUpdate();
-        } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to upsert weekly metric", ex);
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (WeeklyMetricWrite write : writes) {
+                ps.setString(1, write.weekKey());
+                ps.setBytes(2, UuidUtil.toBytes(write.uuid()));
+                ps.setString(3, write.metric());
+                ps.setLong(4, write.delta());
+                ps.addBatch();
+            }
+            ps.executeBatch();
         }
     }
 
@@ -492,10 +747,9 @@ public final class MySqlStorage implements AutoCloseable {
     }
 
     public Map<String, Long> loadTitleProgress(UUID uuid) {
-        String sql = "SELECT title_id, progress FROM title_progress WHERE uuid = ?";
         Map<String, Long> progress = new HashMap<>();
         try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
+             PreparedStatement ps = connection.prepareStatement(PROGRESS_SQL)) {
             ps.setBytes(1, UuidUtil.toBytes(uuid));
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
@@ -508,31 +762,94 @@ public final class MySqlStorage implements AutoCloseable {
         return progress;
     }
 
-    public void setTitleProgress(UUID uuid, String titleId, long value) {
-        String sql = "INSERT INTO title_progress(uuid, title_id, progress) VALUES(?,?,?) " +
-                "ON DUPLICATE KEY UPDATE progress = VALUES(progress)";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setBytes(1, UuidUtil.toBytes(uuid));
-            ps.setString(2, titleId);
-            ps.setLong(3, value);
-            ps.executeUpdate();
-        } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to store title progress", ex);
+    private void readProgress(ResultSet rs, PlayerProgressState state) throws SQLException {
+        while (rs.next()) {
+            state.setProgress(rs.getString("title_id"), rs.getLong("progress"));
         }
     }
 
+    public void setTitleProgress(UUID uuid, String titleId, long value) {
+        writeTitleProgress(List.of(new TitleProgressWrite(uuid, titleId, value, true)));
+    }
+
     public void incrementTitleProgress(UUID uuid, String titleId, long delta) {
-        String sql = "INSERT INTO title_progress(uuid, title_id, progress) VALUES(?,?,?) " +
+        writeTitleProgress(List.of(new TitleProgressWrite(uuid, titleId, delta, false)));
+    }
+
+    /**
+     * Applies buffered progress rows on a single connection as one transaction. Relative rows add to the
+     * stored value while absolute rows overwrite it. A batch that cannot be written is journaled instead.
+     *
+     * @return {@code true} when the whole batch was committed or journaled
+     */
+    public boolean writeTitleProgress(Collection<TitleProgressWrite> writes) {
+        if (writes.isEmpty()) {
+            return true;
+        }
+        return submit(JournalOp.TITLE_PROGRESS, out -> {
+            out.writeInt(writes.size());
+            for (TitleProgressWrite write : writes) {
+                writeUuid(out, write.uuid());
+                out.writeUTF(write.titleId());
+                out.writeLong(write.value());
+                out.writeBoolean(write.absolute());
+            }
+        }, connection -> inTransaction(connection, () -> writeTitleProgress(connection, writes)), "Failed to write title progress batch");
+    }
+
+    private static void writeTitleProgress(Connection connection, Collection<TitleProgressWrite> writes) throws SQLException {
+        String incrementSql = "INSERT INTO title_progress(uuid, title_id, progress) VALUES(?,?,?) " +
                 "ON DUPLICATE KEY UPDATE progress = progress + VALUES(progress)";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setBytes(1, UuidUtil.toBytes(uuid));
-            ps.setString(2, titleId);
-            ps.setLong(3, delta);
-            ps.executeUpdate();
-        } catch (SQLException ex) {
-            logger.log(Level.SEVERE, "Failed to increment title progress", ex);
+        String setSql = "INSERT INTO title_progress(uuid, title_id, progress) VALUES(?,?,?) " +
+                "ON DUPLICATE KEY UPDATE progress = VALUES(progress)";
+        try (PreparedStatement increment = connection.prepareStatement(incrementSql);
+             PreparedStatement set = connection.prepareStatement(setSql)) {
+            for (TitleProgressWrite write : writes) {
+                PreparedStatement ps = write.absolute() ? set : increment;
+                ps.setBytes(1, UuidUtil.toBytes(write.uuid()));
+                ps.setString(2, write.titleId());
+                ps.setLong(3, write.value());
+                ps.addBatch();
+            }
+            increment.executeBatch();
+            set.executeBatch();
+        }
+    }
+
+    /**
+     * Deletes expired modifiers in one batch. A row is only removed if it still carries an expiry at or before
+     * the given one, so a modifier that was re-applied with a later expiry in the meantime survives. A batch
+     * that cannot be written is journaled instead.
+     *
+     * @return {@code true} when the whole batch was committed or journaled
+     */
+    public boolean removeExpiredStatModifiers(Collection<StatModifierExpiry> expiries) {
+        if (expiries.isEmpty()) {
+            return true;
+        }
+        return submit(JournalOp.STAT_MODIFIER_EXPIRE, out -> {
+            out.writeInt(expiries.size());
+            for (StatModifierExpiry expiry : expiries) {
+                writeUuid(out, expiry.uuid());
+                out.writeUTF(expiry.statId());
+                out.writeUTF(expiry.sourceId());
+                out.writeLong(expiry.expireAt());
+            }
+        }, connection -> inTransaction(connection, () -> removeExpiredStatModifiers(connection, expiries)),
+                "Failed to remove expired stat modifiers");
+    }
+
+    private static void removeExpiredStatModifiers(Connection connection, Collection<StatModifierExpiry> expiries) throws SQLException {
+        String sql = "DELETE FROM stat_modifiers WHERE uuid = ? AND stat_id = ? AND source_id = ? AND expire_at <= ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (StatModifierExpiry expiry : expiries) {
+                ps.setBytes(1, UuidUtil.toBytes(expiry.uuid()));
+                ps.setString(2, expiry.statId());
+                ps.setString(3, expiry.sourceId());
+                ps.setLong(4, expiry.expireAt());
+                ps.addBatch();
+            }
+            ps.executeBatch();
         }
     }
 
@@ -540,6 +857,286 @@ public final class MySqlStorage implements AutoCloseable {
         return "23000".equals(exception.getSQLState());
     }
 
+    /**
+     * Routes writes that fail from now on into the journal instead of dropping them.
+     */
+    public void attachJournal(WriteJournal journal) {
+        this.journal = journal;
+    }
+
+    public WriteJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * @return whether journaled writes are still waiting; new writes then queue behind them to keep row order
+     */
+    private boolean journalBacklog() {
+        WriteJournal current = journal;
+        return current != null && current.depth() > 0;
+    }
+
+    /**
+     * Runs a write on a pooled connection, or journals it if that fails or older writes are still journaled.
+     *
+     * @return {@code true} if the write was applied or journaled
+     */
+    private boolean submit(JournalOp op, JournalEncoder encoder, SqlWrite write, String failure) {
+        if (journalBacklog()) {
+            return journal(op, encoder);
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            write.execute(connection);
+            return true;
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, failure, ex);
+            return journal(op, encoder);
+        }
+    }
+
+    private boolean journal(JournalOp op, JournalEncoder encoder) {
+        WriteJournal current = journal;
+        if (current == null) {
+            return false;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                encoder.encode(out);
+            }
+            current.append(op.code, bytes.toByteArray());
+            return true;
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Failed to journal " + op + " write; it is lost", ex);
+            return false;
+        }
+    }
+
+    /**
+     * Replays journaled writes while the database accepts them, then prunes the replay markers.
+     *
+     * @return number of records replayed
+     */
+    public int replayJournal() {
+        return replayJournal(Long.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #replayJournal()}, but stops before the first record that would start after {@code budget};
+     * the rest stays journaled for the next replay.
+     */
+    public int replayJournal(Duration budget) {
+        return replayJournal(budget.toNanos());
+    }
+
+    private int replayJournal(long budgetNanos) {
+        WriteJournal current = journal;
+        if (current == null || current.depth() == 0) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        int replayed = current.replay((seq, type, payload) -> System.nanoTime() - started < budgetNanos
+                && applyJournaled(current, seq, type, payload));
+        if (replayed > 0 && current.depth() == 0) {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement ps = connection.prepareStatement("DELETE FROM journal_applied WHERE journal_id = ? AND seq <= ?")) {
+                ps.setString(1, current.journalId());
+                ps.setLong(2, current.appliedSeq());
+                ps.executeUpdate();
+            } catch (SQLException ex) {
+                logger.log(Level.WARNING, "Failed to prune journal_applied", ex);
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Applies one record together with its {@code journal_applied} marker in one transaction, so a record that
+     * was already applied before a crash is skipped instead of being applied twice.
+     *
+     * @return {@code false} if the database is unavailable and replay should stop
+     */
+    private boolean applyJournaled(WriteJournal current, long seq, int type, byte[] payload) {
+        JournalOp op = JournalOp.fromCode(type);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement mark = connection.prepareStatement(
+                    "INSERT IGNORE INTO journal_applied(journal_id, seq, applied_at) VALUES(?,?,NOW())")) {
+                mark.setString(1, current.journalId());
+                mark.setLong(2, seq);
+                if (mark.executeUpdate() > 0 && op != null) {
+                    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+                        applyJournaled(connection, op, in);
+                    }
+                } else if (op == null) {
+                    logger.severe("Skipping journal record " + seq + " of unknown type " + type);
+                }
+                connection.commit();
+                return true;
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } catch (IOException ex) {
+                connection.rollback();
+                logger.log(Level.SEVERE, "Skipping unreadable journal record " + seq, ex);
+                return true;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            if (ex instanceof SQLTransientException || ex instanceof SQLRecoverableException
+                    || (ex.getSQLState() != null && ex.getSQLState().startsWith("08"))) {
+                logger.log(Level.WARNING, "Journal replay paused at record " + seq + ": " + ex.getMessage());
+                return false;
+            }
+            // A record the database rejects for good would otherwise block every later one.
+            logger.log(Level.SEVERE, "Dropping journal record " + seq + " (" + op + ") rejected by the database", ex);
+            return true;
+        }
+    }
+
+    private static void applyJournaled(Connection connection, JournalOp op, DataInputStream in) throws SQLException, IOException {
+        switch (op) {
+            case GRANT_TITLE -> upsertPlayerTitle(connection, readUuid(in), in.readUTF());
+            case REVOKE_TITLE -> deletePlayerTitle(connection, readUuid(in), in.readUTF());
+            case TITLE_PROGRESS -> {
+                int size = in.readInt();
+                List<TitleProgressWrite> writes = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    writes.add(new TitleProgressWrite(readUuid(in), in.readUTF(), in.readLong(), in.readBoolean()));
+                }
+                writeTitleProgress(connection, writes);
+            }
+            case WEEKLY_METRICS -> {
+                int size = in.readInt();
+                List<WeeklyMetricWrite> writes = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    writes.add(new WeeklyMetricWrite(in.readUTF(), readUuid(in), in.readUTF(), in.readLong()));
+                }
+                incrementWeeklyMetrics(connection, writes);
+            }
+            case COLLECTION_ENTRY -> {
+                String sql = "INSERT IGNORE INTO collection_entries(uuid, material, registered_at, player_rank) VALUES(?,?,?,?)";
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    ps.setBytes(1, UuidUtil.toBytes(readUuid(in)));
+                    ps.setString(2, in.readUTF());
+                    ps.setTimestamp(3, new Timestamp(in.readLong()));
+                    ps.setInt(4, in.readInt());
+                    ps.executeUpdate();
+                }
+            }
+            case ACHIEVEMENT -> {
+                String sql = "INSERT IGNORE INTO achievement_completions(uuid, achievement_id, completed_at) VALUES(?,?,?)";
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    ps.setBytes(1, UuidUtil.toBytes(readUuid(in)));
+                    ps.setString(2, in.readUTF());
+                    ps.setTimestamp(3, new Timestamp(in.readLong()));
+                    ps.executeUpdate();
+                }
+            }
+            case STAT_MODIFIER -> {
+                UUID uuid = readUuid(in);
+                String statId = in.readUTF();
+                String sourceId = in.readUTF();
+                String operation = in.readUTF();
+                double value = in.readDouble();
+                boolean expires = in.readBoolean();
+                long expireAt = in.readLong();
+                upsertStatModifier(connection, uuid, statId, sourceId, operation, value, expires ? expireAt : null);
+            }
+            case STAT_MODIFIER_REMOVE -> removeStatModifier(connection, readUuid(in), in.readUTF(), in.readUTF());
+            case BASE_STAT -> saveBaseStat(connection, readUuid(in), in.readUTF(), in.readDouble());
+            case EQUIPPED -> {
+                int size = in.readInt();
+                List<EquippedWrite> writes = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    UUID uuid = readUuid(in);
+                    boolean equipped = in.readBoolean();
+                    String titleId = in.readUTF();
+                    writes.add(new EquippedWrite(uuid, equipped ? titleId : null));
+                }
+                writeEquipped(connection, writes);
+            }
+            case STAT_MODIFIER_EXPIRE -> {
+                int size = in.readInt();
+                List<StatModifierExpiry> expiries = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    expiries.add(new StatModifierExpiry(readUuid(in), in.readUTF(), in.readUTF(), in.readLong()));
+                }
+                removeExpiredStatModifiers(connection, expiries);
+            }
+        }
+    }
+
+    private static void inTransaction(Connection connection, SqlAction action) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            action.run();
+            connection.commit();
+        } catch (SQLException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    /**
+     * Journaled write types. The codes are stored in journal files and must never be reused.
+     */
+    private enum JournalOp {
+        GRANT_TITLE(1),
+        REVOKE_TITLE(2),
+        TITLE_PROGRESS(3),
+        WEEKLY_METRICS(4),
+        COLLECTION_ENTRY(5),
+        ACHIEVEMENT(6),
+        STAT_MODIFIER(7),
+        STAT_MODIFIER_REMOVE(8),
+        BASE_STAT(9),
+        EQUIPPED(10),
+        STAT_MODIFIER_EXPIRE(11);
+
+        private final int code;
+
+        JournalOp(int code) {
+            this.code = code;
+        }
+
+        static JournalOp fromCode(int code) {
+            for (JournalOp op : values()) {
+                if (op.code == code) {
+                    return op;
+                }
+            }
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlWrite {
+        void execute(Connection connection) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface SqlAction {
+        void run() throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface JournalEncoder {
+        void encode(DataOutputStream out) throws IOException;
+    }
+
     @Override
     public void close() {
         if (dataSource != null) {
@@ -554,4 +1151,16 @@ public final class MySqlStorage implements AutoCloseable {
     public HikariDataSource getDataSource() {
         return dataSource;
     }
+
+    public record TitleProgressWrite(UUID uuid, String titleId, long value, boolean absolute) {
+    }
+
+    public record StatModifierExpiry(UUID uuid, String statId, String sourceId, long expireAt) {
+    }
+
+    public record WeeklyMetricWrite(String weekKey, UUID uuid, String metric, long delta) {
+    }
+
+    public record EquippedWrite(UUID uuid, String titleId) {
+    }
 }
@@ -0,0 +1,180 @@
+package wiki.creeper.creeperPrefixSystem.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for {@code title_progress}. Increments are coalesced per {@code (uuid, titleId)} in
+ * memory and written to MySQL as a single JDBC batch when {@link #flush()} runs, instead of issuing one
+ * upsert per block break.
+ */
+public final class ProgressWriteBuffer {
+
+    private final MySqlStorage storage;
+    private final Map<ProgressKey, PendingProgress> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushAt;
+    private volatile long lastFlushMillis;
+    private volatile int lastFlushSize;
+
+    public ProgressWriteBuffer(MySqlStorage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Queues a relative increment. Consecutive increments for the same title collapse into one row.
+     */
+    public void increment(UUID uuid, String titleId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        pending.merge(new ProgressKey(uuid, titleId), PendingProgress.delta(delta), PendingProgress::merge);
+    }
+
+    /**
+     * Queues an absolute value. Any increments queued before it are superseded because the in-memory value
+     * already includes them.
+     */
+    public void set(UUID uuid, String titleId, long value) {
+        pending.put(new ProgressKey(uuid, titleId), PendingProgress.absolute(value));
+    }
+
+    /**
+     * Writes every pending row in one batch. Rows are re-queued if the batch fails so no progress is lost.
+     *
+     * @return number of rows written
+     */
+    public int flush() {
+        return flushMatching(null);
+    }
+
+    /**
+     * Writes pending rows for a single player, typically when they leave the server.
+     */
+    public int flush(UUID uuid) {
+        return flushMatching(uuid);
+    }
+
+    private int flushMatching(UUID owner) {
+        flushLock.lock();
+        try {
+            List<MySqlStorage.TitleProgressWrite> batch = new ArrayList<>();
+            for (ProgressKey key : pending.keySet()) {
+                if (owner != null && !owner.equals(key.uuid())) {
+                    continue;
+                }
+                PendingProgress progress = pending.remove(key);
+                if (progress != null) {
+                    batch.add(new MySqlStorage.TitleProgressWrite(key.uuid(), key.titleId(), progress.value(), progress.absolute()));
+                }
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            long started = System.currentTimeMillis();
+            if (!storage.writeTitleProgress(batch)) {
+                failedFlushes.incrementAndGet();
+                requeue(batch);
+                return 0;
+            }
+            lastFlushAt = System.currentTimeMillis();
+            lastFlushMillis = lastFlushAt - started;
+            lastFlushSize = batch.size();
+            flushedRows.addAndGet(batch.size());
+            return batch.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void requeue(List<MySqlStorage.TitleProgressWrite> batch) {
+        for (MySqlStorage.TitleProgressWrite write : batch) {
+            PendingProgress failed = write.absolute()
+                    ? PendingProgress.absolute(write.value())
+                    : PendingProgress.delta(write.value());
+            // Anything queued while the batch was in flight happened after it, so it is merged on top.
+            pending.merge(new ProgressKey(write.uuid(), write.titleId()), failed, (newer, older) -> older.merge(newer));
+        }
+    }
+
+    /**
+     * @return number of distinct {@code (uuid, titleId)} rows waiting to be written
+     */
+    public int pendingRows() {
+        return pending.size();
+    }
+
+    /**
+     * @return sum of all queued relative increments
+     */
+    public long pendingDelta() {
+        long total = 0L;
+        for (PendingProgress progress : pending.values()) {
+            if (!progress.absolute()) {
+                total += progress.value();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return age in milliseconds of the oldest change that has not been written yet, or 0 when empty
+     */
+    public long flushLagMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (PendingProgress progress : pending.values()) {
+            oldest = Math.min(oldest, progress.queuedAt());
+        }
+        return oldest == Long.MAX_VALUE ? 0L : System.currentTimeMillis() - oldest;
+    }
+
+    public long flushedRows() {
+        return flushedRows.get();
+    }
+
+    public long failedFlushes() {
+        return failedFlushes.get();
+    }
+
+    public long lastFlushAt() {
+        return lastFlushAt;
+    }
+
+    public long lastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    public int lastFlushSize() {
+        return lastFlushSize;
+    }
+
+    private record ProgressKey(UUID uuid, String titleId) {
+    }
+
+    private record PendingProgress(long value, boolean absolute, long queuedAt) {
+
+        static PendingProgress delta(long delta) {
+            return new PendingProgress(delta, false, System.currentTimeMillis());
+        }
+
+        static PendingProgress absolute(long value) {
+            return new PendingProgress(value, true, System.currentTimeMillis());
+        }
+
+        PendingProgress merge(PendingProgress next) {
+            long queued = Math.min(queuedAt, next.queuedAt);
+            if (next.absolute) {
+                return new PendingProgress(next.value, true, queued);
+            }
+            return new PendingProgress(value + next.value, absolute, queued);
+        }
+    }
+}
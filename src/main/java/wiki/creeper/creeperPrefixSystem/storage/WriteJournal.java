@@ -0,0 +1,403 @@
+package wiki.creeper.creeperPrefixSystem.storage;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local journal for storage writes that could not reach MySQL. Records are appended to segment
+ * files under the plugin data folder through a {@link FileChannel} and forced to disk before
+ * {@link #append(int, byte[])} returns, so a write accepted by the journal survives a crash.
+ * <p>
+ * Each record is {@code [length][crc32][seq][type][payload]}. A torn record at the end of the newest segment
+ * (a crash mid-append) is truncated away when the journal is opened. Replay runs the records in sequence
+ * order; the last replayed sequence is checkpointed in a state file together with a journal id, which the
+ * storage uses to make replay idempotent across restarts.
+ */
+public final class WriteJournal implements AutoCloseable {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String STATE_FILE = "journal.state";
+    private static final int HEADER_BYTES = Integer.BYTES * 2;
+    private static final int BODY_PREFIX_BYTES = Long.BYTES + 1;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+    private static final int CHECKPOINT_EVERY = 256;
+
+    private final Path directory;
+    private final Logger logger;
+    private final long segmentBytes;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock replayLock = new ReentrantLock();
+    private final List<Segment> segments = new ArrayList<>();
+
+    private String journalId;
+    private FileChannel active;
+    private volatile long lastSeq;
+    private volatile long appliedSeq;
+
+    private final AtomicLong appendedRecords = new AtomicLong();
+    private final AtomicLong replayedRecords = new AtomicLong();
+    private volatile long lastReplayCount;
+    private volatile long lastReplayMillis;
+
+    public WriteJournal(Path directory, Logger logger, long segmentBytes) {
+        this.directory = directory;
+        this.logger = logger;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Reads the checkpoint, scans every segment and repairs a torn tail. Must be called before use.
+     */
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        readState();
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        lastSeq = appliedSeq;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            boolean newest = i == files.size() - 1;
+            long[] scan = scan(file);
+            long firstSeq = scan[0];
+            long validBytes = scan[1];
+            long fileSize = Files.size(file);
+            if (validBytes < fileSize) {
+                if (newest) {
+                    logger.warning("Truncating torn journal record at " + file.getFileName() + ":" + validBytes);
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        channel.truncate(validBytes);
+                    }
+                } else {
+                    logger.severe("Corrupt journal segment " + file.getFileName() + " after byte " + validBytes
+                            + "; records beyond it cannot be replayed");
+                }
+            }
+            if (firstSeq < 0) {
+                Files.deleteIfExists(file);
+                continue;
+            }
+            segments.add(new Segment(file, validBytes));
+            lastSeq = Math.max(lastSeq, scan[2]);
+        }
+        if (depth() > 0) {
+            logger.warning("Write journal holds " + depth() + " records waiting to be replayed");
+        }
+    }
+
+    /**
+     * @return {@code [firstSeq or -1, bytes of valid records, lastSeq]}
+     */
+    private long[] scan(Path file) throws IOException {
+        long firstSeq = -1L;
+        long last = -1L;
+        long position = 0L;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Record record;
+            while ((record = read(channel, position, channel.size())) != null) {
+                if (firstSeq < 0) {
+                    firstSeq = record.seq();
+                }
+                last = record.seq();
+                position = record.next();
+            }
+        }
+        return new long[]{firstSeq, position, last};
+    }
+
+    /**
+     * Appends a record and forces it to disk.
+     *
+     * @return the record's sequence number
+     */
+    public long append(int type, byte[] payload) throws IOException {
+        appendLock.lock();
+        try {
+            long seq = lastSeq + 1;
+            int bodyLength = BODY_PREFIX_BYTES + payload.length;
+            ByteBuffer body = ByteBuffer.allocate(bodyLength);
+            body.putLong(seq).put((byte) type).put(payload).flip();
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + bodyLength);
+            record.putInt(bodyLength).putInt((int) crc.getValue()).put(body).flip();
+
+            Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (active == null || segment == null || segment.size + record.remaining() > segmentBytes) {
+                segment = roll(seq);
+            }
+            while (record.hasRemaining()) {
+                active.write(record);
+            }
+            active.force(false);
+            segment.size += HEADER_BYTES + bodyLength;
+            lastSeq = seq;
+            appendedRecords.incrementAndGet();
+            return seq;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private Segment roll(long firstSeq) throws IOException {
+        if (active != null) {
+            active.close();
+        }
+        Segment segment;
+        Segment newest = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (active == null && newest != null && newest.size < segmentBytes) {
+            // Reopen the segment left over from the previous run instead of starting a new file.
+            segment = newest;
+        } else {
+            segment = new Segment(directory.resolve(String.format("%020d", firstSeq) + SEGMENT_SUFFIX), 0L);
+            segments.add(segment);
+        }
+        active = FileChannel.open(segment.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return segment;
+    }
+
+    /**
+     * Hands every record after the checkpoint to {@code applier} in order until it reports a failure.
+     * Fully replayed segments are deleted.
+     *
+     * @return number of records replayed by this call
+     */
+    public int replay(Applier applier) {
+        if (!replayLock.tryLock()) {
+            return 0;
+        }
+        long started = System.currentTimeMillis();
+        int replayed = 0;
+        try {
+            while (true) {
+                Segment segment;
+                long limit;
+                appendLock.lock();
+                try {
+                    if (segments.isEmpty()) {
+                        break;
+                    }
+                    segment = segments.get(0);
+                    limit = segment.size;
+                } finally {
+                    appendLock.unlock();
+                }
+                boolean stopped = false;
+                try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                    long position = 0L;
+                    Record record;
+                    while ((record = read(channel, position, limit)) != null) {
+                        position = record.next();
+                        if (record.seq() <= appliedSeq) {
+                            continue;
+                        }
+                        if (!applier.apply(record.seq(), record.type(), record.payload())) {
+                            stopped = true;
+                            break;
+                        }
+                        appliedSeq = record.seq();
+                        replayed++;
+                        replayedRecords.incrementAndGet();
+                        if (replayed % CHECKPOINT_EVERY == 0) {
+                            writeState();
+                        }
+                    }
+                }
+                if (stopped || !retire(segment, limit)) {
+                    break;
+                }
+            }
+            if (replayed > 0) {
+                writeState();
+            }
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Failed to replay write journal", ex);
+        } finally {
+            if (replayed > 0) {
+                lastReplayCount = replayed;
+                lastReplayMillis = System.currentTimeMillis() - started;
+            }
+            replayLock.unlock();
+        }
+        return replayed;
+    }
+
+    /**
+     * Deletes a segment whose records up to {@code limit} were all replayed, unless records were appended to
+     * it in the meantime.
+     *
+     * @return whether the next segment should be replayed
+     */
+    private boolean retire(Segment segment, long limit) throws IOException {
+        appendLock.lock();
+        try {
+            if (segment.size != limit) {
+                return true;
+            }
+            if (segments.size() == 1 && active != null) {
+                active.close();
+                active = null;
+            }
+            segments.remove(segment);
+            writeState();
+            Files.deleteIfExists(segment.path);
+            return !segments.isEmpty();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private static Record read(FileChannel channel, long position, long limit) throws IOException {
+        if (position + HEADER_BYTES > limit) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, position);
+        int length = header.getInt(0);
+        int crc = header.getInt(Integer.BYTES);
+        if (length < BODY_PREFIX_BYTES || length > MAX_RECORD_BYTES || position + HEADER_BYTES + length > limit) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        readFully(channel, body, position + HEADER_BYTES);
+        CRC32 check = new CRC32();
+        check.update(body.duplicate());
+        if ((int) check.getValue() != crc) {
+            return null;
+        }
+        long seq = body.getLong();
+        int type = body.get();
+        byte[] payload = new byte[body.remaining()];
+        body.get(payload);
+        return new Record(seq, type, payload, position + HEADER_BYTES + length);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    private void readState() throws IOException {
+        Path state = directory.resolve(STATE_FILE);
+        if (Files.exists(state)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(state))) {
+                journalId = in.readUTF();
+                appliedSeq = in.readLong();
+                return;
+            }
+        }
+        journalId = UUID.randomUUID().toString();
+        appliedSeq = 0L;
+        writeState();
+    }
+
+    private void writeState() throws IOException {
+        Path state = directory.resolve(STATE_FILE);
+        Path temp = directory.resolve(STATE_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+            out.writeUTF(journalId);
+            out.writeLong(appliedSeq);
+        }
+        Files.move(temp, state, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return random id of this journal, stable across restarts until the data folder is wiped
+     */
+    public String journalId() {
+        return journalId;
+    }
+
+    /**
+     * @return records appended but not replayed yet
+     */
+    public long depth() {
+        return Math.max(0L, lastSeq - appliedSeq);
+    }
+
+    /**
+     * @return highest sequence known to be replayed
+     */
+    public long appliedSeq() {
+        return appliedSeq;
+    }
+
+    public long appendedRecords() {
+        return appendedRecords.get();
+    }
+
+    public long replayedRecords() {
+        return replayedRecords.get();
+    }
+
+    /**
+     * @return records per second of the last replay run that replayed anything
+     */
+    public double lastReplayRate() {
+        long millis = lastReplayMillis;
+        return lastReplayCount == 0 ? 0.0D : lastReplayCount * 1000.0D / Math.max(1L, millis);
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            if (active != null) {
+                active.close();
+                active = null;
+            }
+            writeState();
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Failed to close write journal", ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Applies one replayed record.
+     */
+    @FunctionalInterface
+    public interface Applier {
+
+        /**
+         * @return {@code false} if the record could not be applied and replay should stop for now
+         */
+        boolean apply(long seq, int type, byte[] payload);
+    }
+
+    private record Record(long seq, int type, byte[] payload, long next) {
+    }
+
+    private static final class Segment {
+
+        final Path path;
+        long size;
+
+        Segment(Path path, long size) {
+            this.path = path;
+            this.size = size;
+        }
+    }
+}
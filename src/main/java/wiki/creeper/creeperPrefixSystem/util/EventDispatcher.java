@@ -4,38 +4,99 @@ import org.bukkit.Bukkit;
 import org.bukkit.event.Event;
 import org.bukkit.plugin.Plugin;
 
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Ensures that custom events are always fired synchronously regardless of the calling thread.
+ * Ensures that custom events are always fired synchronously regardless of the calling thread. Events raised
+ * off the main thread are queued and fired together by a single main-thread task per tick.
  */
 public final class EventDispatcher {
 
+    private static final Queue<Pending<?>> PENDING = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean DRAIN_SCHEDULED = new AtomicBoolean();
+    private static final AtomicLong BATCHED_EVENTS = new AtomicLong();
+    private static final AtomicLong DRAIN_TASKS = new AtomicLong();
+
     private EventDispatcher() {
     }
 
+    /**
+     * Fires the event and waits for it. Off the main thread this parks the caller until the next tick, so
+     * worker threads should prefer {@link #dispatchAsync(Plugin, Event)}.
+     */
     public static <T extends Event> T dispatch(Plugin plugin, T event) {
         if (Bukkit.isPrimaryThread()) {
             Bukkit.getPluginManager().callEvent(event);
             return event;
         }
-        CompletableFuture<T> future = new CompletableFuture<>();
-        Bukkit.getScheduler().runTask(plugin, () -> {
+        try {
+            return dispatchAsync(plugin, event).join();
+        } catch (RuntimeException ex) {
+            throw new RuntimeException("Failed to dispatch event", ex.getCause() != null ? ex.getCause() : ex);
+        }
+    }
+
+    /**
+     * Fires the event without blocking. On the main thread the event runs immediately and the returned future
+     * is already complete; otherwise it is queued for the next tick and the future completes on the main
+     * thread, so callbacks attached to it may touch the Bukkit API.
+     */
+    public static <T extends Event> CompletableFuture<T> dispatchAsync(Plugin plugin, T event) {
+        if (Bukkit.isPrimaryThread()) {
+            try {
+                Bukkit.getPluginManager().callEvent(event);
+                return CompletableFuture.completedFuture(event);
+            } catch (Throwable throwable) {
+                return CompletableFuture.failedFuture(throwable);
+            }
+        }
+        Pending<T> pending = new Pending<>(event, new CompletableFuture<>());
+        PENDING.add(pending);
+        BATCHED_EVENTS.incrementAndGet();
+        if (DRAIN_SCHEDULED.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTask(plugin, EventDispatcher::drain);
+        }
+        return pending.future();
+    }
+
+    private static void drain() {
+        DRAIN_TASKS.incrementAndGet();
+        // Clear the flag first: an event queued while draining either gets picked up below or schedules a new task.
+        DRAIN_SCHEDULED.set(false);
+        Pending<?> pending;
+        while ((pending = PENDING.poll()) != null) {
+            pending.fire();
+        }
+    }
+
+    /**
+     * @return events waiting for the next drain task
+     */
+    public static int pendingEvents() {
+        return PENDING.size();
+    }
+
+    public static long batchedEvents() {
+        return BATCHED_EVENTS.get();
+    }
+
+    public static long drainTasks() {
+        return DRAIN_TASKS.get();
+    }
+
+    private record Pending<T extends Event>(T event, CompletableFuture<T> future) {
+
+        void fire() {
             try {
                 Bukkit.getPluginManager().callEvent(event);
                 future.complete(event);
             } catch (Throwable throwable) {
                 future.completeExceptionally(throwable);
             }
-        });
-        try {
-            return future.get();
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Event dispatch interrupted", ex);
-        } catch (ExecutionException ex) {
-            throw new RuntimeException("Failed to dispatch event", ex.getCause());
         }
     }
 }
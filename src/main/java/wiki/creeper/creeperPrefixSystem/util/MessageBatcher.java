@@ -0,0 +1,127 @@
+package wiki.creeper.creeperPrefixSystem.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Collects outgoing chat notifications per player and delivers them from a single main-thread task on the
+ * next tick. Identical lines queued within a tick are sent once, and merged lines sharing a key are rendered
+ * into one message.
+ */
+public final class MessageBatcher {
+
+    private final Plugin plugin;
+    private final Map<UUID, Outbox> outboxes = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong queuedMessages = new AtomicLong();
+    private final AtomicLong sentMessages = new AtomicLong();
+
+    public MessageBatcher(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Queues a line for the player. Repeating a line that is already queued has no effect.
+     */
+    public void send(UUID uuid, String message) {
+        if (message == null) {
+            return;
+        }
+        enqueue(uuid, message, null, null);
+    }
+
+    /**
+     * Queues an item of a merged message. All items queued under the same key within a tick are de-duplicated
+     * and rendered together by {@code formatter} when the batch is flushed.
+     */
+    public void sendMerged(UUID uuid, String key, String item, Function<Collection<String>, String> formatter) {
+        enqueue(uuid, "merge:" + key, item, formatter);
+    }
+
+    private void enqueue(UUID uuid, String key, String item, Function<Collection<String>, String> formatter) {
+        queuedMessages.incrementAndGet();
+        // An outbox being drained is closed; retrying picks up the fresh one for the next tick.
+        while (!outboxes.computeIfAbsent(uuid, ignored -> new Outbox()).add(key, item, formatter)) {
+            Thread.onSpinWait();
+        }
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTask(plugin, this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        for (UUID uuid : outboxes.keySet()) {
+            Outbox outbox = outboxes.remove(uuid);
+            if (outbox == null) {
+                continue;
+            }
+            Collection<String> lines = outbox.drain();
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                continue;
+            }
+            for (String line : lines) {
+                player.sendMessage(line);
+                sentMessages.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return lines queued since startup, including duplicates that were dropped or merged
+     */
+    public long queuedMessages() {
+        return queuedMessages.get();
+    }
+
+    public long sentMessages() {
+        return sentMessages.get();
+    }
+
+    private static final class Outbox {
+
+        private final Map<String, Set<String>> lines = new LinkedHashMap<>();
+        private final Map<String, Function<Collection<String>, String>> formatters = new LinkedHashMap<>();
+        private boolean closed;
+
+        synchronized boolean add(String key, String item, Function<Collection<String>, String> formatter) {
+            if (closed) {
+                return false;
+            }
+            Set<String> items = lines.computeIfAbsent(key, ignored -> new LinkedHashSet<>());
+            if (item != null) {
+                items.add(item);
+                formatters.put(key, formatter);
+            }
+            return true;
+        }
+
+        synchronized Collection<String> drain() {
+            closed = true;
+            Collection<String> rendered = new ArrayList<>(lines.size());
+            for (Map.Entry<String, Set<String>> entry : lines.entrySet()) {
+                Function<Collection<String>, String> formatter = formatters.get(entry.getKey());
+                rendered.add(formatter == null ? entry.getKey() : formatter.apply(entry.getValue()));
+            }
+            return rendered;
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package wiki.creeper.creeperPrefixSystem.util;
+
+import wiki.creeper.creeperPrefixSystem.config.ExecutorMode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Worker pool for database work with one bounded queue per {@link Lane}. Idle workers always take the oldest
+ * task of the most urgent non-empty lane, so profile loads for joining players are never stuck behind a burst
+ * of progress writes. A lower lane whose oldest task has waited longer than the starvation limit is served
+ * once before the higher lanes again.
+ * <p>
+ * When a lane is full, {@link #execute(Lane, Runnable)} runs the task on the calling thread if that thread
+ * may block, which slows the producer down; otherwise (the server thread) the task is queued beyond the bound
+ * and counted as an overflow. {@link #offer(Lane, Runnable)} instead refuses the task, for callers whose data
+ * stays in a write buffer and is written by the next periodic flush.
+ * <p>
+ * In {@link ExecutorMode#VIRTUAL} mode a single dispatcher hands every task to its own virtual thread once
+ * one of {@code concurrency} permits is free, so the lane order still decides who gets a connection next
+ * while blocked calls no longer pin an OS thread.
+ */
+public final class PriorityExecutor extends AbstractExecutorService {
+
+    private static final long STARVATION_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final Logger logger;
+    private final ExecutorMode mode;
+    private final int capacity;
+    private final BooleanSupplier callerMayBlock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Condition terminated = lock.newCondition();
+    private final Map<Lane, ArrayDeque<Queued>> queues = new EnumMap<>(Lane.class);
+    private final Map<Lane, LaneStats> stats = new EnumMap<>(Lane.class);
+    private final List<Thread> workers = new ArrayList<>();
+    private final Semaphore permits;
+    private final ThreadFactory taskThreads;
+    private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+
+    private boolean shutdown;
+    private int liveWorkers;
+    private int activeWorkers;
+    private boolean servedStarved;
+
+    /**
+     * @param concurrency    worker threads, or concurrently running virtual threads in virtual mode
+     * @param capacity       queued tasks per lane before back-pressure applies
+     * @param callerMayBlock whether the current thread may run a task itself when its lane is full
+     */
+    public PriorityExecutor(String name, ExecutorMode mode, int concurrency, int capacity, Logger logger,
+                            BooleanSupplier callerMayBlock) {
+        this.logger = logger;
+        this.mode = mode;
+        this.capacity = Math.max(1, capacity);
+        this.callerMayBlock = callerMayBlock;
+        for (Lane lane : Lane.values()) {
+            queues.put(lane, new ArrayDeque<>());
+            stats.put(lane, new LaneStats());
+        }
+        int count = Math.max(1, concurrency);
+        taskThreads = mode.threadFactory(name);
+        if (mode == ExecutorMode.VIRTUAL) {
+            permits = new Semaphore(count);
+            workers.add(Thread.ofVirtual().name(name + "-dispatch").unstarted(this::dispatch));
+        } else {
+            permits = null;
+            for (int i = 0; i < count; i++) {
+                workers.add(taskThreads.newThread(this::work));
+            }
+        }
+        liveWorkers = workers.size();
+        workers.forEach(Thread::start);
+    }
+
+    /**
+     * Queues {@code task} on the {@link Lane#INTERACTIVE} lane.
+     */
+    @Override
+    public void execute(Runnable task) {
+        execute(Lane.INTERACTIVE, task);
+    }
+
+    public void execute(Lane lane, Runnable task) {
+        LaneStats laneStats = stats.get(lane);
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("TitlePlus executor is shut down");
+            }
+            ArrayDeque<Queued> queue = queues.get(lane);
+            if (queue.size() < capacity) {
+                enqueue(queue, task);
+                return;
+            }
+            if (!callerMayBlock.getAsBoolean()) {
+                laneStats.overflowed.incrementAndGet();
+                enqueue(queue, task);
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        laneStats.callerRuns.incrementAndGet();
+        runTask(lane, task);
+    }
+
+    /**
+     * Queues {@code task} unless its lane is full.
+     *
+     * @return {@code false} if the task was refused; the caller keeps the work for a later attempt
+     */
+    public boolean offer(Lane lane, Runnable task) {
+        lock.lock();
+        try {
+            ArrayDeque<Queued> queue = queues.get(lane);
+            if (shutdown || queue.size() >= capacity) {
+                stats.get(lane).deferred.incrementAndGet();
+                return false;
+            }
+            enqueue(queue, task);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return an executor that queues on {@code lane}, for {@link java.util.concurrent.CompletableFuture} stages
+     */
+    public Executor lane(Lane lane) {
+        return task -> execute(lane, task);
+    }
+
+    private void enqueue(ArrayDeque<Queued> queue, Runnable task) {
+        queue.addLast(new Queued(task, System.nanoTime()));
+        available.signal();
+    }
+
+    private void work() {
+        try {
+            Taken next;
+            while ((next = take()) != null) {
+                try {
+                    runTask(next.lane(), next.task());
+                } finally {
+                    finishTask();
+                }
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        } finally {
+            retireWorker();
+        }
+    }
+
+    private void dispatch() {
+        try {
+            while (true) {
+                permits.acquire();
+                Taken next;
+                try {
+                    next = take();
+                } catch (InterruptedException ex) {
+                    permits.release();
+                    throw ex;
+                }
+                if (next == null) {
+                    permits.release();
+                    return;
+                }
+                Thread thread = taskThreads.newThread(() -> {
+                    running.add(Thread.currentThread());
+                    try {
+                        runTask(next.lane(), next.task());
+                    } finally {
+                        running.remove(Thread.currentThread());
+                        permits.release();
+                        finishTask();
+                    }
+                });
+                thread.start();
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        } finally {
+            retireWorker();
+        }
+    }
+
+    /**
+     * Waits for the next task and marks it active.
+     *
+     * @return the task, or {@code null} once the executor is shut down and drained
+     */
+    private Taken take() throws InterruptedException {
+        lock.lock();
+        try {
+            Lane lane;
+            while ((lane = pick()) == null) {
+                if (shutdown) {
+                    return null;
+                }
+                available.await();
+            }
+            activeWorkers++;
+            return new Taken(lane, queues.get(lane).pollFirst().task());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finishTask() {
+        lock.lock();
+        try {
+            activeWorkers--;
+            if (isDone()) {
+                terminated.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void retireWorker() {
+        lock.lock();
+        try {
+            liveWorkers--;
+            if (isDone()) {
+                terminated.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caller holds the lock.
+     */
+    private boolean isDone() {
+        return shutdown && liveWorkers == 0 && activeWorkers == 0;
+    }
+
+    /**
+     * @return the lane to serve next, or {@code null} when every queue is empty. Caller holds the lock.
+     */
+    private Lane pick() {
+        long now = System.nanoTime();
+        Lane urgent = null;
+        for (Lane lane : Lane.values()) {
+            Queued head = queues.get(lane).peekFirst();
+            if (head == null) {
+                continue;
+            }
+            if (urgent == null) {
+                urgent = lane;
+                if (servedStarved) {
+                    // A starved task was served last time; the urgent lane goes next.
+                    break;
+                }
+            } else if (now - head.enqueuedAt() > STARVATION_NANOS) {
+                servedStarved = true;
+                return lane;
+            }
+        }
+        servedStarved = false;
+        return urgent;
+    }
+
+    private void runTask(Lane lane, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException ex) {
+            logger.log(Level.SEVERE, "Uncaught exception in " + lane.name().toLowerCase() + " task", ex);
+        } finally {
+            stats.get(lane).completed.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> pending = new ArrayList<>();
+        lock.lock();
+        try {
+            shutdown = true;
+            for (ArrayDeque<Queued> queue : queues.values()) {
+                queue.forEach(queued -> pending.add(queued.task()));
+                queue.clear();
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        workers.forEach(Thread::interrupt);
+        running.forEach(Thread::interrupt);
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        lock.lock();
+        try {
+            return isDone();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!isDone()) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = terminated.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int depth(Lane lane) {
+        lock.lock();
+        try {
+            return queues.get(lane).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public ExecutorMode mode() {
+        return mode;
+    }
+
+    public int activeCount() {
+        lock.lock();
+        try {
+            return activeWorkers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long completed(Lane lane) {
+        return stats.get(lane).completed.get();
+    }
+
+    public long completedTasks() {
+        long total = 0L;
+        for (LaneStats laneStats : stats.values()) {
+            total += laneStats.completed.get();
+        }
+        return total;
+    }
+
+    /**
+     * @return tasks queued beyond the lane bound because the caller could not block
+     */
+    public long overflowed(Lane lane) {
+        return stats.get(lane).overflowed.get();
+    }
+
+    /**
+     * @return tasks run on the submitting thread because the lane was full
+     */
+    public long callerRuns(Lane lane) {
+        return stats.get(lane).callerRuns.get();
+    }
+
+    /**
+     * @return tasks refused by {@link #offer(Lane, Runnable)} and left to a write buffer
+     */
+    public long deferred(Lane lane) {
+        return stats.get(lane).deferred.get();
+    }
+
+    /**
+     * Scheduling classes, most urgent first.
+     */
+    public enum Lane {
+        /** Profile loads that a joining player is waiting for. */
+        PLAYER_LOAD,
+        /** Writes and reads caused directly by a player or an admin command. */
+        INTERACTIVE,
+        /** Buffer flushes, sweeps and periodic evaluations. */
+        BACKGROUND
+    }
+
+    private record Queued(Runnable task, long enqueuedAt) {
+    }
+
+    private record Taken(Lane lane, Runnable task) {
+    }
+
+    private static final class LaneStats {
+
+        final AtomicLong completed = new AtomicLong();
+        final AtomicLong overflowed = new AtomicLong();
+        final AtomicLong callerRuns = new AtomicLong();
+        final AtomicLong deferred = new AtomicLong();
+    }
+}
@@ -0,0 +1,110 @@
+package wiki.creeper.creeperPrefixSystem.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ordered shutdown shared by the Paper and Velocity entry points. Stages run one after another against a
+ * single deadline; each reports how many operations it flushed and how many it had to abandon, and the totals
+ * are logged once at the end. A failing stage is logged and does not stop the ones after it.
+ */
+public final class ShutdownPipeline {
+
+    private final Logger logger;
+    private final Duration deadline;
+    private final List<Stage> stages = new ArrayList<>();
+
+    public ShutdownPipeline(Logger logger, Duration deadline) {
+        this.logger = logger;
+        this.deadline = deadline;
+    }
+
+    public ShutdownPipeline stage(String name, Step step) {
+        stages.add(new Stage(name, step));
+        return this;
+    }
+
+    /**
+     * Runs every stage in order. Stages reached after the deadline receive {@link Duration#ZERO}.
+     */
+    public void run() {
+        long started = System.nanoTime();
+        long deadlineAt = started + deadline.toNanos();
+        long flushed = 0L;
+        long abandoned = 0L;
+        for (Stage stage : stages) {
+            Duration remaining = Duration.ofNanos(Math.max(0L, deadlineAt - System.nanoTime()));
+            try {
+                Result result = stage.step().run(remaining);
+                flushed += result.flushed();
+                abandoned += result.abandoned();
+                if (result.flushed() > 0 || result.abandoned() > 0) {
+                    logger.info("Shutdown " + stage.name() + ": flushed " + result.flushed() + ", abandoned " + result.abandoned());
+                }
+            } catch (Exception ex) {
+                logger.log(Level.SEVERE, "Shutdown stage " + stage.name() + " failed", ex);
+            }
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        String summary = "Shutdown finished in " + elapsed + "ms: " + flushed + " operations flushed, " + abandoned + " abandoned";
+        if (abandoned > 0) {
+            logger.warning(summary);
+        } else {
+            logger.info(summary);
+        }
+    }
+
+    /**
+     * Stops the executor from accepting work and waits for its queued and running tasks until the deadline.
+     * Whatever is still queued then is cancelled and counted as abandoned.
+     */
+    public static Result drain(ExecutorService executor, Duration remaining) throws InterruptedException {
+        long completedBefore = completedTasks(executor);
+        executor.shutdown();
+        long abandoned = 0L;
+        if (!executor.awaitTermination(remaining.toNanos(), TimeUnit.NANOSECONDS)) {
+            abandoned = executor.shutdownNow().size() + activeTasks(executor);
+        }
+        return new Result(completedTasks(executor) - completedBefore, abandoned);
+    }
+
+    private static long completedTasks(ExecutorService executor) {
+        if (executor instanceof PriorityExecutor priority) {
+            return priority.completedTasks();
+        }
+        return executor instanceof ThreadPoolExecutor pool ? pool.getCompletedTaskCount() : 0L;
+    }
+
+    private static int activeTasks(ExecutorService executor) {
+        if (executor instanceof PriorityExecutor priority) {
+            return priority.activeCount();
+        }
+        return executor instanceof ThreadPoolExecutor pool ? pool.getActiveCount() : 0;
+    }
+
+    /**
+     * One shutdown step.
+     */
+    @FunctionalInterface
+    public interface Step {
+
+        /**
+         * @param remaining time left until the deadline, {@link Duration#ZERO} once it has passed
+         */
+        Result run(Duration remaining) throws Exception;
+    }
+
+    public record Result(long flushed, long abandoned) {
+
+        public static final Result NONE = new Result(0L, 0L);
+    }
+
+    private record Stage(String name, Step step) {
+    }
+}
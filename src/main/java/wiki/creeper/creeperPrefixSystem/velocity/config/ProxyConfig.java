@@ -8,13 +8,15 @@ public record ProxyConfig(StorageConfig mysql,
                           boolean seasonAutoSync,
                           long seasonSyncIntervalSeconds,
                           long weeklyEvaluationMinutes,
-                          String defaultWeeklyMetric) {
+                          String defaultWeeklyMetric,
+                          long shutdownDeadlineSeconds,
+                          String executorMode) {
 
     public static ProxyConfig defaults() {
         StorageConfig storage = new StorageConfig("localhost", 3306, "titleplus", "root", "password", 10, 2, 30000L);
         RedisConfig redis = new RedisConfig(false, "localhost", 6379, null, null,
                 "tp.broadcast", "tp.api.request", "tp.api.reply",
                 "tp:season:current", "tp:week:current", "tp:rank:top3");
-        return new ProxyConfig(storage, redis, true, 300L, 5L, "FARMING_POINTS");
+        return new ProxyConfig(storage, redis, true, 300L, 5L, "FARMING_POINTS", 10L, "platform");
     }
 }
@@ -85,8 +85,13 @@ public final class ProxyConfigurationLoader {
         long syncInterval = numberOr("TITLEPLUS_SEASON_SYNC_SECONDS", config.seasonSyncIntervalSeconds());
         long weeklyMinutes = numberOr("TITLEPLUS_WEEKLY_EVAL_MIN", config.weeklyEvaluationMinutes());
         String metric = envOr("TITLEPLUS_WEEKLY_METRIC", config.defaultWeeklyMetric());
+        // Files written before the shutdown deadline existed deserialize it as 0.
+        long shutdownDeadline = numberOr("TITLEPLUS_SHUTDOWN_DEADLINE_SECONDS",
+                config.shutdownDeadlineSeconds() > 0 ? config.shutdownDeadlineSeconds() : 10L);
+        String executorMode = envOr("TITLEPLUS_EXECUTOR_MODE", config.executorMode() == null ? "platform" : config.executorMode());
 
-        return new ProxyConfig(storage, redis, autoSync, syncInterval, weeklyMinutes, metric);
+        return new ProxyConfig(storage, redis, autoSync, syncInterval, weeklyMinutes, metric,
+                Math.max(1L, shutdownDeadline), executorMode);
     }
 
     private String envOr(String key, String fallback) {